@@ -1,12 +1,15 @@
 package com.admin_service.admin_service.client;
 
+import com.admin_service.admin_service.dto.BatchPostRequest;
+import com.admin_service.admin_service.dto.BatchPostResultDTO;
 import com.admin_service.admin_service.dto.PostManagementDTO;
 import com.admin_service.admin_service.dto.PostStatsResponse;
-import com.admin_service.admin_service.dto.ReportedPostDTO;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.SpringQueryMap;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "post-service")
@@ -19,7 +22,7 @@ public interface PostServiceClient {
     Page<PostManagementDTO> searchPosts(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String userId,
-            @RequestParam Pageable pageable
+            @SpringQueryMap Pageable pageable
     );
 
     @DeleteMapping("/api/posts/admin/{postId}")
@@ -31,6 +34,6 @@ public interface PostServiceClient {
     @PostMapping("/api/posts/admin/{postId}/unhide")
     void unhidePost(@PathVariable String postId);
 
-    @GetMapping("/api/posts/admin/reported")
-    Page<ReportedPostDTO> getReportedPosts(@RequestParam Pageable pageable);
+    @PostMapping("/api/posts/batch")
+    List<BatchPostResultDTO> getPostsBatch(@RequestBody BatchPostRequest request);
 }
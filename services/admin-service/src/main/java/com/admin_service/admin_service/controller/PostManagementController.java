@@ -3,6 +3,7 @@ package com.admin_service.admin_service.controller;
 import com.admin_service.admin_service.client.PostServiceClient;
 import com.admin_service.admin_service.dto.PostManagementDTO;
 import com.admin_service.admin_service.dto.ReportedPostDTO;
+import com.admin_service.admin_service.service.ReportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 public class PostManagementController {
 
     private final PostServiceClient postServiceClient;
+    private final ReportService reportService;
 
     @GetMapping
     public ResponseEntity<Page<PostManagementDTO>> getPosts(
@@ -35,7 +37,7 @@ public class PostManagementController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(postServiceClient.getReportedPosts(pageable));
+        return ResponseEntity.ok(reportService.getReportedPosts(pageable));
     }
 
     @DeleteMapping("/{postId}")
@@ -0,0 +1,14 @@
+package com.admin_service.admin_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchPostRequest {
+    private List<String> postIds;
+}
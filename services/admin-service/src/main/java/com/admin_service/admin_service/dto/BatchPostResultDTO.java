@@ -0,0 +1,10 @@
+package com.admin_service.admin_service.dto;
+
+import lombok.Data;
+
+@Data
+public class BatchPostResultDTO {
+    private String postId;
+    private String status;  // found, not_found or deleted
+    private PostDTO post;
+}
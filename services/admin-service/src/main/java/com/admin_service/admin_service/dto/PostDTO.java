@@ -0,0 +1,16 @@
+package com.admin_service.admin_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class PostDTO {
+    private String id;
+    private String userId;
+    private String username;
+    private String content;
+    private int likesCount;
+    private int commentsCount;
+    private LocalDateTime createdAt;
+}
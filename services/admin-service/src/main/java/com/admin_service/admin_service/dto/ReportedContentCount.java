@@ -0,0 +1,14 @@
+package com.admin_service.admin_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class ReportedContentCount {
+    private String id;                  // the reported content id
+    private int count;
+    private List<String> reasons;
+    private LocalDateTime lastReportedAt;
+}
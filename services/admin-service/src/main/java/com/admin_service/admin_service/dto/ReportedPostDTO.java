@@ -14,4 +14,5 @@ public class ReportedPostDTO {
     private int reportCount;
     private List<String> reportReasons;
     private LocalDateTime createdAt;
+    private String postStatus;  // found, not_found or deleted, as reported by post-service
 }
\ No newline at end of file
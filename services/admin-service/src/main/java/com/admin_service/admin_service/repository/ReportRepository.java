@@ -1,4 +1,30 @@
 package com.admin_service.admin_service.repository;
 
-public class   ReportRepository {
+import com.admin_service.admin_service.dto.ReportedContentCount;
+import com.admin_service.admin_service.model.Report;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface ReportRepository extends MongoRepository<Report, String> {
+    Page<Report> findByStatus(Report.ReportStatus status, Pageable pageable);
+    long countByStatus(Report.ReportStatus status);
+
+    // Open reports grouped per post, most reported first
+    @Aggregation(pipeline = {
+            "{ $match: { contentType: 'POST', status: { $in: ['PENDING', 'UNDER_REVIEW'] } } }",
+            "{ $group: { _id: '$reportedContentId', count: { $sum: 1 }, reasons: { $addToSet: '$reason' }, lastReportedAt: { $max: '$createdAt' } } }",
+            "{ $sort: { count: -1, lastReportedAt: -1, _id: 1 } }"
+    })
+    List<ReportedContentCount> findOpenPostReportCounts(Pageable pageable);
+
+    @Aggregation(pipeline = {
+            "{ $match: { contentType: 'POST', status: { $in: ['PENDING', 'UNDER_REVIEW'] } } }",
+            "{ $group: { _id: '$reportedContentId' } }",
+            "{ $count: 'total' }"
+    })
+    Long countOpenReportedPosts();
 }
@@ -2,14 +2,25 @@ package com.admin_service.admin_service.service;
 
 // ReportService.java
 
+import com.admin_service.admin_service.client.PostServiceClient;
+import com.admin_service.admin_service.dto.BatchPostRequest;
+import com.admin_service.admin_service.dto.BatchPostResultDTO;
+import com.admin_service.admin_service.dto.PostDTO;
+import com.admin_service.admin_service.dto.ReportedContentCount;
+import com.admin_service.admin_service.dto.ReportedPostDTO;
 import com.admin_service.admin_service.model.Report;
 import com.admin_service.admin_service.repository.ReportRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -17,6 +28,7 @@ import java.time.LocalDateTime;
 public class ReportService {
 
     private final ReportRepository reportRepository;
+    private final PostServiceClient postServiceClient;
 
     public Report createReport(Report report) {
         report.setCreatedAt(LocalDateTime.now());
@@ -31,6 +43,46 @@ public class ReportService {
         return reportRepository.findAll(pageable);
     }
 
+    /**
+     * Posts with open reports, most reported first. Post details come from one batch call
+     * to post-service rather than one request per post.
+     */
+    public Page<ReportedPostDTO> getReportedPosts(Pageable pageable) {
+        List<ReportedContentCount> counts = reportRepository.findOpenPostReportCounts(pageable);
+        if (counts.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        List<String> postIds = counts.stream().map(ReportedContentCount::getId).collect(Collectors.toList());
+        Map<String, BatchPostResultDTO> posts = postServiceClient.getPostsBatch(new BatchPostRequest(postIds)).stream()
+                .collect(Collectors.toMap(BatchPostResultDTO::getPostId, Function.identity(), (a, b) -> a));
+
+        List<ReportedPostDTO> content = counts.stream()
+                .map(count -> {
+                    ReportedPostDTO dto = new ReportedPostDTO();
+                    dto.setPostId(count.getId());
+                    dto.setReportCount(count.getCount());
+                    dto.setReportReasons(count.getReasons());
+
+                    BatchPostResultDTO result = posts.get(count.getId());
+                    if (result != null) {
+                        dto.setPostStatus(result.getStatus());
+                        PostDTO post = result.getPost();
+                        if (post != null) {
+                            dto.setContent(post.getContent());
+                            dto.setUserId(post.getUserId());
+                            dto.setUsername(post.getUsername());
+                            dto.setCreatedAt(post.getCreatedAt());
+                        }
+                    }
+                    return dto;
+                })
+                .collect(Collectors.toList());
+
+        Long total = reportRepository.countOpenReportedPosts();
+        return new PageImpl<>(content, pageable, total != null ? total : content.size());
+    }
+
     public Report getReportById(String reportId) {
         return reportRepository.findById(reportId)
                 .orElseThrow(() -> new RuntimeException("Report not found"));
@@ -24,6 +24,8 @@ public class    GatewayConfig {
                 // User Service
                 .route("user-service", r -> r
                         .path("/api/users/**")
+                        // Internal endpoints are for service-to-service calls and carry no token check
+                        .and().not(p -> p.path("/api/users/internal/**"))
                         .filters(f -> f.requestRateLimiter(c -> c
                                 .setRateLimiter(redisRateLimiter)
                                 .setKeyResolver(userKeyResolver)))
@@ -32,6 +34,8 @@ public class    GatewayConfig {
                 // Post Service
                 .route("post-service", r -> r
                         .path("/api/posts/**")
+                        // Admin endpoints are only for admin-service, which calls post-service directly
+                        .and().not(p -> p.path("/api/posts/admin/**"))
                         .filters(f -> f.requestRateLimiter(c -> c
                                 .setRateLimiter(redisRateLimiter)
                                 .setKeyResolver(userKeyResolver)))
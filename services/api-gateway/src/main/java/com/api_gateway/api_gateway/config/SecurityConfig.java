@@ -25,6 +25,7 @@ public class SecurityConfig {
                         .pathMatchers(
                                 "/api/users/register",
                                 "/api/users/login",
+                                "/api/users/availability",
                                 "/api/admin/auth/login",
                                 "/health",
                                 "/actuator/**",
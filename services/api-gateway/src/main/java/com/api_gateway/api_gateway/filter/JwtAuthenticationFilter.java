@@ -26,6 +26,7 @@ public class JwtAuthenticationFilter implements WebFilter {
     private static final List<String> PUBLIC_PATHS = List.of(
             "/api/users/register",
             "/api/users/login",
+            "/api/users/availability",
             "/api/admin/auth/login",
             "/health",
             "/actuator",
@@ -0,0 +1,80 @@
+package com.api_gateway.api_gateway.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records which authenticated users are making requests and reports them to user-service
+ * for presence. Ids are collected in a set and sent as one batch per interval, so the
+ * request path never waits on user-service.
+ */
+@Component
+@Slf4j
+public class PresenceFilter implements GlobalFilter, Ordered {
+
+    private final WebClient webClient;
+    private final Set<String> activeUsers = ConcurrentHashMap.newKeySet();
+
+    @Value("${presence.report.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    public PresenceFilter(ReactorLoadBalancerExchangeFilterFunction loadBalancer) {
+        this.webClient = WebClient.builder()
+                .baseUrl("http://USER-SERVICE")
+                .filter(loadBalancer)
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // The principal is the user id set by JwtAuthenticationFilter; public paths have none
+        return ReactiveSecurityContextHolder.getContext()
+                .flatMap(context -> Mono.justOrEmpty(context.getAuthentication()))
+                .filter(authentication -> authentication instanceof UsernamePasswordAuthenticationToken)
+                .doOnNext(authentication -> activeUsers.add(authentication.getName()))
+                .then(chain.filter(exchange));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Scheduled(fixedDelayString = "${presence.report.interval-ms:5000}")
+    public void report() {
+        while (!activeUsers.isEmpty()) {
+            List<String> batch = new ArrayList<>(Math.min(activeUsers.size(), maxBatchSize));
+            Iterator<String> it = activeUsers.iterator();
+            while (it.hasNext() && batch.size() < maxBatchSize) {
+                batch.add(it.next());
+                it.remove();
+            }
+
+            webClient.post()
+                    .uri("/api/users/internal/presence/activity")
+                    .bodyValue(batch)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .subscribe(
+                            response -> log.debug("👥 Reported activity of {} users", batch.size()),
+                            error -> log.warn("⚠️ Could not report activity of {} users: {}", batch.size(), error.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.media_blob_store;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file storage.
+ * Uploads are hashed with SHA-256 while they stream to a temp file and then stored once under
+ * "<root>/ab/cd/<sha256>.<ext>"; identical uploads share the file and bump a reference count in
+ * Mongo. A key never changes its bytes, so URLs built from it can be cached forever.
+ * Each service creates one as a bean, with its own root directory and reference-count collection.
+ */
+@Slf4j
+public class BlobStore {
+
+    private static final Pattern KEY = Pattern.compile("^[0-9a-f]{64}(\\.[A-Za-z0-9]{1,10})?$");
+    private static final int LOCK_STRIPES = 64;
+
+    private final MongoTemplate mongoTemplate;
+    private final Path root;
+    private final String collection;
+    // Serializes the refcount change and the file operation for one digest within this replica
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public BlobStore(MongoTemplate mongoTemplate, String root, String collection) {
+        this.mongoTemplate = mongoTemplate;
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.collection = collection;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Stores the stream and returns its key, "<sha256>.<ext>" (or just the digest without an extension).
+     */
+    public String store(InputStream in, String extension) {
+        try {
+            Path tmpDir = root.resolve("tmp");
+            Files.createDirectories(tmpDir);
+            Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream digesting = new DigestInputStream(in, sha256)) {
+                size = Files.copy(digesting, tmp, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+
+            return commit(tmp, HexFormat.of().formatHex(sha256.digest()), size, extension);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store file", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Takes ownership of a finished file (e.g. an assembled chunked upload) and moves it into
+     * the store without copying it. The file is read once to compute its digest.
+     */
+    public String adopt(Path file, String extension) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = Files.newInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    sha256.update(buffer, 0, read);
+                }
+            }
+            return commit(file, HexFormat.of().formatHex(sha256.digest()), Files.size(file), extension);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store file", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Registers one reference to the digest and moves the file into place unless an identical one is there
+    private String commit(Path file, String digest, long size, String extension) throws IOException {
+        String ext = sanitizeExtension(extension);
+        String key = digest + (ext.isEmpty() ? "" : "." + ext);
+        Path target = path(key);
+
+        synchronized (lockFor(key)) {
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(key)),
+                    new Update()
+                            .inc("refCount", 1)
+                            .setOnInsert("size", size)
+                            .setOnInsert("createdAt", LocalDateTime.now()),
+                    MediaBlob.class, collection);
+
+            if (Files.exists(target)) {
+                Files.delete(file);
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Drops one reference; the file is deleted when nothing points at it any more.
+     */
+    public void release(String key) {
+        if (!isKey(key)) {
+            return;
+        }
+        synchronized (lockFor(key)) {
+            MediaBlob blob = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(key)),
+                    new Update().inc("refCount", -1),
+                    FindAndModifyOptions.options().returnNew(true),
+                    MediaBlob.class, collection);
+            if (blob == null || blob.getRefCount() > 0) {
+                return;
+            }
+
+            // The locks only cover this replica: if another one stored the same bytes since the
+            // decrement, nothing is removed and the file is theirs now
+            long removed = mongoTemplate.remove(Query.query(Criteria.where("_id").is(key).and("refCount").lte(0)),
+                    MediaBlob.class, collection).getDeletedCount();
+            if (removed != 1) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(path(key));
+            } catch (IOException e) {
+                log.warn("Could not delete unreferenced blob {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    public boolean isKey(String key) {
+        return key != null && KEY.matcher(key).matches();
+    }
+
+    // "ab/cd/<key>" keeps directories small however many blobs there are
+    public Path path(String key) {
+        if (!isKey(key)) {
+            throw new IllegalArgumentException("Not a blob key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    private Object lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static String sanitizeExtension(String extension) {
+        if (extension == null) {
+            return "";
+        }
+        String ext = extension.startsWith(".") ? extension.substring(1) : extension;
+        ext = ext.toLowerCase();
+        return ext.matches("[a-z0-9]{1,10}") ? ext : "";
+    }
+}
@@ -0,0 +1,19 @@
+package com.media_blob_store;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reference count for one content-addressed file; the id is "<sha256>.<ext>".
+ * Each service keeps these in its own collection, named when its BlobStore is created.
+ */
+@Data
+public class MediaBlob {
+    @Id
+    private String id;
+    private long refCount;
+    private long size;
+    private LocalDateTime createdAt;
+}
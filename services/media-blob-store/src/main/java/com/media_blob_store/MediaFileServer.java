@@ -0,0 +1,166 @@
+package com.media_blob_store;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streams files from disk with HTTP caching and byte-range support.
+ * Handles conditional GETs (ETag / Last-Modified, 304), single byte ranges (206 / 416),
+ * and hands the transfer to Tomcat's sendfile when the connector supports it, falling
+ * back to FileChannel.transferTo otherwise.
+ */
+public class MediaFileServer {
+
+    // Uploads are stored under random UUID or content-digest names and never rewritten, so their bytes can be cached forever
+    private static final Pattern IMMUTABLE_NAME = Pattern.compile(
+            "^([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-f]{64})(\\.[A-Za-z0-9]+)?$");
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private static final long ONE_YEAR_SECONDS = 31_536_000;
+
+    /**
+     * Writes the file (or the requested range of it) to the response.
+     *
+     * @param privateCache true when only the requesting user may see the file, so shared caches must not store it
+     */
+    public void serve(Path file, boolean privateCache, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(file, privateCache));
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // Sets ETag / Last-Modified and answers 304 (or 412) on its own when the client copy is current
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setContentType(contentType.toString());
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && rangeStillValid(request, etag, lastModified)) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            // Multi-range requests are legal to answer with the whole file
+            if (matcher.matches()) {
+                String first = matcher.group(1);
+                String last = matcher.group(2);
+                if (first.isEmpty() && last.isEmpty()) {
+                    rangeNotSatisfiable(response, length);
+                    return;
+                }
+                try {
+                    if (first.isEmpty()) {
+                        // Suffix range: the last N bytes
+                        start = Math.max(0, length - Long.parseLong(last));
+                    } else {
+                        start = Long.parseLong(first);
+                        if (!last.isEmpty()) {
+                            end = Math.min(Long.parseLong(last), length - 1);
+                        }
+                    }
+                } catch (NumberFormatException e) {
+                    // Positions beyond Long.MAX_VALUE are past the end of any file
+                    rangeNotSatisfiable(response, length);
+                    return;
+                }
+                if (start >= length || start > end) {
+                    rangeNotSatisfiable(response, length);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        // Tomcat streams the file straight from the page cache to the socket once we return
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private String cacheControl(Path file, boolean privateCache) {
+        String scope = privateCache ? "private" : "public";
+        if (IMMUTABLE_NAME.matcher(file.getFileName().toString()).matches()) {
+            return scope + ", max-age=" + ONE_YEAR_SECONDS + ", immutable";
+        }
+        return scope + ", no-cache";
+    }
+
+    // If-Range: only honour the range when the client's copy is still the current one
+    private boolean rangeStillValid(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void rangeNotSatisfiable(HttpServletResponse response, long length) {
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.setContentLength(0);
+    }
+}
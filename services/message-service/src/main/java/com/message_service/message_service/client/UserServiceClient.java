@@ -2,6 +2,7 @@ package com.message_service.message_service.client;
 
 
 import com.message_service.message_service.config.FeignConfig;
+import com.message_service.message_service.dto.PresenceDTO;
 import com.message_service.message_service.dto.UserDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
+import java.util.Map;
 
 @FeignClient(
         name = "USER-SERVICE",
@@ -22,4 +24,13 @@ public interface UserServiceClient {
 
     @PostMapping("/api/users/internal/batch")
     List<UserDTO> getUsersByIds(@RequestBody List<String> userIds);
-}
\ No newline at end of file
+
+    @PostMapping("/api/users/internal/presence")
+    Map<String, PresenceDTO> getPresence(@RequestBody List<String> userIds);
+
+    @PostMapping("/api/users/internal/presence/{userId}/connected")
+    void userConnected(@PathVariable("userId") String userId);
+
+    @PostMapping("/api/users/internal/presence/{userId}/disconnected")
+    void userDisconnected(@PathVariable("userId") String userId);
+}
@@ -0,0 +1,31 @@
+package com.message_service.message_service.config;
+
+import com.message_service.message_service.client.UserServiceClient;
+import com.message_service.message_service.dto.UserDTO;
+import com.user_snapshot_cache.UserBatchLoader;
+import com.user_snapshot_cache.UserBatchLoaderProperties;
+import com.user_snapshot_cache.UserSnapshotCache;
+import com.user_snapshot_cache.UserSnapshotCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserSnapshotCacheConfig {
+
+    // Coalesces concurrent lookups into POST /api/users/internal/batch calls
+    @Bean
+    public UserBatchLoader<UserDTO> userBatchLoader(UserServiceClient userServiceClient,
+                                                    UserBatchLoaderProperties properties,
+                                                    MeterRegistry meterRegistry) {
+        return new UserBatchLoader<>(userServiceClient::getUsersByIds, UserDTO::getId, properties, meterRegistry);
+    }
+
+    // Misses still go through the batch loader, so concurrent misses share one user-service call
+    @Bean
+    public UserSnapshotCache<UserDTO> userSnapshotCache(UserBatchLoader<UserDTO> userBatchLoader,
+                                                        UserSnapshotCacheProperties properties,
+                                                        MeterRegistry meterRegistry) {
+        return new UserSnapshotCache<>("users", userBatchLoader::loadAll, properties, meterRegistry);
+    }
+}
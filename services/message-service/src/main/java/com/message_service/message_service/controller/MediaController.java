@@ -1,20 +1,19 @@
 package com.message_service.message_service.controller;
 
-import com.message_service.message_service.model.Message;
+import com.media_blob_store.BlobStore;
+import com.media_blob_store.MediaFileServer;
 import com.message_service.message_service.repository.MessageRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/media")
@@ -23,54 +22,47 @@ import java.util.Optional;
 public class MediaController {
 
     private final MessageRepository messageRepository;
+    private final MediaFileServer mediaFileServer;
+    private final BlobStore blobStore;
     private static final String UPLOAD_DIR = "uploads/messages/";
 
     @GetMapping("/messages/{filename}")
-    public ResponseEntity<Resource> getImage(
+    public void getImage(
             @PathVariable String filename,
-            @AuthenticationPrincipal String userId) {
+            @AuthenticationPrincipal String userId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
         log.info("📷 Image request: {} by user: {}", filename, userId);
 
-        // 1. Find message with this image
+        // 1. Find a message with this image
         String fullUrl = "http://MESSAGE-SERVICE/api/media/messages/" + filename;
-        Optional<Message> messageOpt = messageRepository.findByMediaUrl(fullUrl);
-
-        if (messageOpt.isEmpty()) {
+        // Files are deduplicated, so several messages may share one URL
+        if (!messageRepository.existsByMediaUrl(fullUrl)) {
             log.warn("⚠️ Message not found for image: {}", filename);
-            return ResponseEntity.notFound().build();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
-        Message message = messageOpt.get();
-
         // 2. Check authorization (only sender or receiver can view)
-        if (!message.getSenderId().equals(userId) &&
-                !message.getReceiverId().equals(userId)) {
+        if (!messageRepository.existsByMediaUrlAndParticipant(fullUrl, userId)) {
             log.warn("🚫 Unauthorized access attempt by user {} for image {}", userId, filename);
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
         }
 
-        // 3. Return file if authorized
-        Path filePath = Paths.get(UPLOAD_DIR + filename);
-        Resource resource = new FileSystemResource(filePath);
-
-        if (!resource.exists()) {
+        // 3. Stream the file if authorized; only sender and receiver may cache it
+        // Content-addressed uploads live in the BlobStore, older ones under UPLOAD_DIR
+        Path legacyDir = Paths.get(UPLOAD_DIR).normalize();
+        boolean isBlob = blobStore.isKey(filename);
+        Path filePath = isBlob ? blobStore.path(filename) : legacyDir.resolve(filename).normalize();
+        if (!Files.isRegularFile(filePath) || (!isBlob && !filePath.startsWith(legacyDir))) {
             log.error("❌ File not found on disk: {}", filePath);
-            return ResponseEntity.notFound().build();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
         log.info("✅ Authorized access by user {} to image {}", userId, filename);
-
-        // Determine content type based on file extension
-        MediaType contentType = MediaType.IMAGE_JPEG;
-        if (filename.endsWith(".png")) {
-            contentType = MediaType.IMAGE_PNG;
-        } else if (filename.endsWith(".gif")) {
-            contentType = MediaType.IMAGE_GIF;
-        }
-
-        return ResponseEntity.ok()
-                .contentType(contentType)
-                .body(resource);
+        mediaFileServer.serve(filePath, true, request, response);
     }
 }
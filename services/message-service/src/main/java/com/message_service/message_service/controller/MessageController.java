@@ -1,19 +1,19 @@
 package com.message_service.message_service.controller;
 
 // MessageController.java
-import com.message_service.message_service.model.Message;
 import com.message_service.message_service.repository.MessageRepository;
+import com.media_blob_store.BlobStore;
+import com.media_blob_store.MediaFileServer;
 import com.message_service.message_service.service.ConversationService;
+import com.message_service.message_service.dto.CursorPage;
 import com.message_service.message_service.dto.MessageRequest;
 import com.message_service.message_service.dto.MessageResponse;
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -22,13 +22,11 @@ import com.message_service.message_service.service.MessageService;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/messages")
@@ -40,6 +38,8 @@ public class MessageController {
 
 
     private final MessageRepository messageRepository;
+    private final MediaFileServer mediaFileServer;
+    private final BlobStore blobStore;
 
     private static final String UPLOAD_DIR = "uploads/messages/";
 
@@ -65,43 +65,43 @@ public class MessageController {
 
 
     @GetMapping("/messages/{filename}")
-    public ResponseEntity<Resource> getImage(
+    public void getImage(
             @PathVariable String filename,
-            @AuthenticationPrincipal String userId) {  // ✅ Authentication required!
+            @AuthenticationPrincipal String userId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {  // ✅ Authentication required!
 
         log.info("📷 Image request: {} by user: {}", filename, userId);
 
-        // 1. Find message with this image
+        // 1. Find a message with this image
         String fullUrl = "http://MESSAGE-SERVICE/uploads/messages/" + filename;
-        Message message = messageRepository.findByMediaUrl(fullUrl)
-                .orElse(null);
-
-        if (message == null) {
+        // Files are deduplicated, so several messages may share one URL
+        if (!messageRepository.existsByMediaUrl(fullUrl)) {
             log.warn("⚠️ Image not found: {}", filename);
-            return ResponseEntity.notFound().build();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
         // 2. Check authorization (only sender or receiver can view)
-        if (!message.getSenderId().equals(userId) &&
-                !message.getReceiverId().equals(userId)) {
+        if (!messageRepository.existsByMediaUrlAndParticipant(fullUrl, userId)) {
             log.warn("🚫 Unauthorized access attempt by user {} for image {}", userId, filename);
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
         }
 
-        // 3. Return file if authorized
-        Path filePath = Paths.get(UPLOAD_DIR + filename);
-        org.springframework.core.io.Resource resource = new FileSystemResource(filePath);
-
-        if (!resource.exists()) {
+        // 3. Stream the file if authorized; only sender and receiver may cache it
+        // Content-addressed uploads live in the BlobStore, older ones under UPLOAD_DIR
+        Path legacyDir = Paths.get(UPLOAD_DIR).normalize();
+        boolean isBlob = blobStore.isKey(filename);
+        Path filePath = isBlob ? blobStore.path(filename) : legacyDir.resolve(filename).normalize();
+        if (!Files.isRegularFile(filePath) || (!isBlob && !filePath.startsWith(legacyDir))) {
             log.error("❌ File not found on disk: {}", filePath);
-            return ResponseEntity.notFound().build();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
         log.info("✅ Authorized access by user {} to image {}", userId, filename);
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.IMAGE_JPEG)  // Adjust based on file type
-                .body(resource);
+        mediaFileServer.serve(filePath, true, request, response);
     }
 
     @PostMapping("/send-with-media")
@@ -120,14 +120,7 @@ public class MessageController {
         String mediaUrl = null;
 
         if (file != null && !file.isEmpty()) {
-            try {
-                // Create directory if doesn't exist
-                File uploadDir = new File(UPLOAD_DIR);
-                if (!uploadDir.exists()) {
-                    uploadDir.mkdirs();
-                    log.info("📁 Created upload directory: {}", UPLOAD_DIR);
-                }
-
+            try (InputStream in = file.getInputStream()) {
                 // Validate file
                 if (file.getSize() > 10 * 1024 * 1024) { // 10MB
                     log.error("❌ File too large: {} bytes", file.getSize());
@@ -140,11 +133,9 @@ public class MessageController {
                 if (originalFilename != null && originalFilename.contains(".")) {
                     extension = originalFilename.substring(originalFilename.lastIndexOf("."));
                 }
-                String filename = UUID.randomUUID().toString() + extension;
 
-                // Save file
-                Path filePath = Paths.get(UPLOAD_DIR + filename);
-                Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+                // Save file once per distinct content; the name is its SHA-256 digest
+                String filename = blobStore.store(in, extension);
 
                 mediaUrl = "http://MESSAGE-SERVICE/api/media/messages/" + filename;
 
@@ -179,4 +170,13 @@ public class MessageController {
         Page<MessageResponse> messages = messageService.getConversationMessages(conversationId, userId, pageable);
         return ResponseEntity.ok(messages);
     }
+
+    @GetMapping("/conversation/{conversationId}/cursor")
+    public ResponseEntity<CursorPage<MessageResponse>> getConversationMessagesSlice(
+            @PathVariable String conversationId,
+            @AuthenticationPrincipal String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(messageService.getConversationMessagesSlice(conversationId, userId, cursor, size));
+    }
 }
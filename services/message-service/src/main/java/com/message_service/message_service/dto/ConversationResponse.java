@@ -19,4 +19,5 @@ public class ConversationResponse {
     private LocalDateTime lastMessageTime;
     private int unreadCount;
     private boolean isOnline;
+    private LocalDateTime otherUserLastSeen;
 }
@@ -0,0 +1,33 @@
+package com.message_service.message_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Slice of a keyset-paginated list. No total count is computed;
+ * hasNext is known by fetching one extra row.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Builds a slice from rows fetched with limit size + 1.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, String> cursorOf, Function<E, T> mapper) {
+        int limit = Math.max(1, size);
+        boolean hasNext = rows.size() > limit;
+        List<E> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        return new CursorPage<>(page.stream().map(mapper).collect(Collectors.toList()), nextCursor, hasNext);
+    }
+}
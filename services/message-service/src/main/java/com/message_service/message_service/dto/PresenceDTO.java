@@ -0,0 +1,11 @@
+package com.message_service.message_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class PresenceDTO {
+    private boolean online;
+    private LocalDateTime lastSeen;
+}
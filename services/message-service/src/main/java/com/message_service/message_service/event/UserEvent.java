@@ -0,0 +1,13 @@
+package com.message_service.message_service.event;
+
+import lombok.Data;
+
+// Profile events from user-events; the fields user-service sets on PROFILE_UPDATED
+@Data
+public class UserEvent {
+    private String type;
+    private String userId;
+    private String username;
+    private String fullName;
+    private String profilePicture;
+}
@@ -1,34 +1,76 @@
 package com.message_service.message_service.listener;
 
+import com.message_service.message_service.client.UserServiceClient;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectedEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class WebSocketEventListener {
 
+    private final UserServiceClient userServiceClient;
+    // One thread, so a user's disconnect is never reported before the connect that preceded it
+    private final ExecutorService presenceReporter = Executors.newSingleThreadExecutor();
+
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectedEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
         String sessionId = headerAccessor.getSessionId();
-        log.info("New WebSocket connection established. Session ID: {}", sessionId);
+
+        // CONNECTED carries the original CONNECT frame, whose session holds the userId set by WebSocketAuthInterceptor
+        Message<?> connectMessage = (Message<?>) headerAccessor.getHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER);
+        String userId = connectMessage != null
+                ? userId(SimpMessageHeaderAccessor.getSessionAttributes(connectMessage.getHeaders()))
+                : null;
+        log.info("New WebSocket connection established. Session ID: {}, user: {}", sessionId, userId);
+
+        if (userId != null) {
+            reportPresence(() -> userServiceClient.userConnected(userId), userId);
+        }
     }
 
     @EventListener
     public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
         String sessionId = headerAccessor.getSessionId();
-        String username = (String) headerAccessor.getSessionAttributes().get("username");
+        String userId = userId(headerAccessor.getSessionAttributes());
 
-        if (username != null) {
-            log.info("User {} disconnected from session {}", username, sessionId);
-            // You can add additional cleanup logic here if needed
+        if (userId != null) {
+            log.info("User {} disconnected from session {}", userId, sessionId);
+            reportPresence(() -> userServiceClient.userDisconnected(userId), userId);
         } else {
             log.info("WebSocket connection closed. Session ID: {}", sessionId);
         }
     }
-}
\ No newline at end of file
+
+    @PreDestroy
+    public void shutdown() {
+        presenceReporter.shutdown();
+    }
+
+    // Off the broker thread: a slow user-service must not hold up STOMP frames
+    private void reportPresence(Runnable call, String userId) {
+        CompletableFuture.runAsync(call, presenceReporter).exceptionally(e -> {
+            log.warn("Failed to report presence for user {}: {}", userId, e.getMessage());
+            return null;
+        });
+    }
+
+    private static String userId(Map<String, Object> sessionAttributes) {
+        return sessionAttributes != null ? (String) sessionAttributes.get("userId") : null;
+    }
+}
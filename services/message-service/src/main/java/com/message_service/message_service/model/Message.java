@@ -11,7 +11,7 @@ import java.time.LocalDateTime;
 @Data
 @Document(collection = "messages")
 @CompoundIndexes({
-        @CompoundIndex(name = "conversation_index", def = "{'conversationId': 1, 'createdAt': -1}")
+        @CompoundIndex(name = "conversation_cursor_index", def = "{'conversationId': 1, 'createdAt': -1, '_id': -1}")
 })
 public class Message {
     @Id
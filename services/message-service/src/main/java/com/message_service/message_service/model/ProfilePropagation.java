@@ -0,0 +1,31 @@
+package com.message_service.message_service.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pending rewrite of a user's sender name and avatar on their messages, keyed by user id.
+ * Messages are reached conversation by conversation; the last conversation done, and the position
+ * inside the one after it, are saved after every batch, so a job picked up again after a crash
+ * continues where it stopped. A newer
+ * profile change bumps the generation and restarts the job. Removed once it completes.
+ */
+@Data
+@Document(collection = "profile_propagations")
+public class ProfilePropagation {
+    @Id
+    private String id;  // the user whose profile changed
+    private String username;
+    private String profilePicture;
+    private long generation;
+    private String lastConversationId;
+    private String lastMessageId;        // with lastCreatedAt, the position inside the next conversation
+    private LocalDateTime lastCreatedAt;
+    private long updated;
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+    private LocalDateTime requestedAt;
+}
@@ -1,10 +1,12 @@
 package com.message_service.message_service.repository;
 
 import com.message_service.message_service.model.Message;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,11 +14,23 @@ public interface MessageRepository extends MongoRepository<Message, String> {
 
     Page<Message> findByConversationIdOrderByCreatedAtDesc(String conversationId, Pageable pageable);
 
+    // Keyset pagination over (createdAt, _id); returns a List so no count query runs
+    List<Message> findByConversationIdOrderByCreatedAtDescIdDesc(String conversationId, Pageable pageable);
+
+    @Query(value = "{ 'conversationId': ?0, $or: [ { 'createdAt': { $lt: ?1 } }, { 'createdAt': ?1, '_id': { $lt: ?2 } } ] }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Message> findConversationMessagesBefore(String conversationId, LocalDateTime createdAt, ObjectId id, Pageable pageable);
+
     @Query("{ $or: [ { 'senderId': ?0, 'receiverId': ?1 }, { 'senderId': ?1, 'receiverId': ?0 } ] }")
     Page<Message> findMessagesBetweenUsers(String userId1, String userId2, Pageable pageable);
 
     long countByReceiverIdAndIsReadFalse(String receiverId);
     Optional<Message> findByMediaUrl(String mediaUrl);
 
+    boolean existsByMediaUrl(String mediaUrl);
+
+    @Query(value = "{ 'mediaUrl': ?0, $or: [ { 'senderId': ?1 }, { 'receiverId': ?1 } ] }", exists = true)
+    boolean existsByMediaUrlAndParticipant(String mediaUrl, String userId);
+
     List<Message> findByConversationIdAndReceiverIdAndIsReadFalse(String conversationId, String receiverId);
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package com.message_service.message_service.service;
 
 import com.message_service.message_service.client.UserServiceClient;
 import com.message_service.message_service.dto.ConversationResponse;
+import com.message_service.message_service.dto.PresenceDTO;
 import com.message_service.message_service.dto.UserDTO;
 import com.message_service.message_service.dto.WebSocketMessage;
 import com.message_service.message_service.model.Message;
+import com.user_snapshot_cache.UserSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import com.message_service.message_service.model.Conversation;
@@ -24,9 +26,13 @@ public class ConversationService {
 
     private final ConversationRepository conversationRepository;
     private final MessageRepository messageRepository;
+    private final UserSnapshotCache<UserDTO> userSnapshotCache;
     private final UserServiceClient userServiceClient;
     private final SimpMessagingTemplate messagingTemplate;
 
+    // user-service answers at most this many ids per presence request
+    private static final int PRESENCE_BATCH_SIZE = 500;
+
     /**
      * ✅ SINGLE SOURCE OF TRUTH for finding/creating conversations
      */
@@ -62,7 +68,8 @@ public class ConversationService {
      */
     public ConversationResponse getOrCreateConversation(String userId1, String userId2) {
         Conversation conversation = findOrCreateConversation(userId1, userId2);
-        return mapToConversationResponse(conversation, userId1);
+        return mapToConversationResponse(conversation, userId1,
+                userSnapshotCache.getAll(List.of(userId2)), getPresence(List.of(userId2)));
     }
 
     /**
@@ -161,8 +168,24 @@ public class ConversationService {
 
     public List<ConversationResponse> getUserConversations(String userId) {
         List<Conversation> conversations = conversationRepository.findByParticipantsContaining(userId);
+
+        // One batched lookup for every other participant instead of a call per conversation
+        List<String> otherUserIds = conversations.stream()
+                .map(conversation -> otherParticipant(conversation, userId))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Map<String, UserDTO> users;
+        try {
+            users = userSnapshotCache.getAll(otherUserIds);
+        } catch (Exception e) {
+            log.error("Error loading conversation participants: {}", e.getMessage());
+            users = Map.of();
+        }
+
+        Map<String, UserDTO> participants = users;
+        Map<String, PresenceDTO> presence = getPresence(otherUserIds);
         return conversations.stream()
-                .map(conversation -> mapToConversationResponse(conversation, userId))
+                .map(conversation -> mapToConversationResponse(conversation, userId, participants, presence))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
@@ -177,24 +200,50 @@ public class ConversationService {
                 .sum();
     }
 
-    private ConversationResponse mapToConversationResponse(Conversation conversation, String currentUserId) {
+    private static String otherParticipant(Conversation conversation, String currentUserId) {
+        return conversation.getParticipants().stream()
+                .filter(id -> !id.equals(currentUserId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    // Presence is never cached; without it everyone simply shows as offline
+    private Map<String, PresenceDTO> getPresence(List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
         try {
-            String otherUserId = conversation.getParticipants().stream()
-                    .filter(id -> !id.equals(currentUserId))
-                    .findFirst()
-                    .orElse(null);
+            List<String> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+            Map<String, PresenceDTO> presence = new HashMap<>();
+            for (int from = 0; from < ids.size(); from += PRESENCE_BATCH_SIZE) {
+                presence.putAll(userServiceClient.getPresence(ids.subList(from, Math.min(ids.size(), from + PRESENCE_BATCH_SIZE))));
+            }
+            return presence;
+        } catch (Exception e) {
+            log.error("Error loading presence: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private ConversationResponse mapToConversationResponse(Conversation conversation, String currentUserId,
+                                                           Map<String, UserDTO> users,
+                                                           Map<String, PresenceDTO> presence) {
+        try {
+            String otherUserId = otherParticipant(conversation, currentUserId);
 
             if (otherUserId == null) {
                 log.warn("Could not find other user in conversation: {}", conversation.getId());
                 return null;
             }
 
-            UserDTO otherUser = userServiceClient.getUserById(otherUserId);
+            UserDTO otherUser = users.get(otherUserId);
             if (otherUser == null) {
                 log.warn("User not found: {}", otherUserId);
                 return null;
             }
 
+            PresenceDTO otherPresence = presence.get(otherUserId);
+
             int unreadCount = conversation.getUnreadCount() != null
                     ? conversation.getUnreadCount().getOrDefault(currentUserId, 0)
                     : 0;
@@ -207,7 +256,8 @@ public class ConversationService {
                     .lastMessage(conversation.getLastMessage())
                     .lastMessageTime(conversation.getLastMessageTime())
                     .unreadCount(unreadCount)
-                    .isOnline(false)
+                    .isOnline(otherPresence != null && otherPresence.isOnline())
+                    .otherUserLastSeen(otherPresence != null ? otherPresence.getLastSeen() : null)
                     .build();
         } catch (Exception e) {
             log.error("Error mapping conversation: {}", e.getMessage());
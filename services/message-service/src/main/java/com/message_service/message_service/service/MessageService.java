@@ -1,15 +1,17 @@
 package com.message_service.message_service.service;
 
-import com.message_service.message_service.client.UserServiceClient;
+import com.message_service.message_service.dto.CursorPage;
 import com.message_service.message_service.dto.MessageRequest;
 import com.message_service.message_service.dto.MessageResponse;
 import com.message_service.message_service.dto.UserDTO;
 import com.message_service.message_service.dto.WebSocketMessage;
+import com.user_snapshot_cache.UserSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import com.message_service.message_service.model.Conversation;
 import com.message_service.message_service.model.Message;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -17,6 +19,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Service;
 import com.message_service.message_service.repository.ConversationRepository;
 import com.message_service.message_service.repository.MessageRepository;
+import com.message_service.message_service.util.PageCursor;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
@@ -37,14 +40,16 @@ public class MessageService {
 
     private final MessageRepository messageRepository;
     private final ConversationService conversationService;  // ✅ Inject ConversationService
-    private final UserServiceClient userServiceClient;
+    private final UserSnapshotCache<UserDTO> userSnapshotCache;
     private final SimpMessagingTemplate messagingTemplate;
 
+    private static final int MAX_SLICE_SIZE = 100;
+
     public MessageResponse sendMessage(String senderId, MessageRequest request) {
         log.info("Sending message from {} to {}", senderId, request.getReceiverId());
 
         // Get sender details
-        UserDTO sender = userServiceClient.getUserById(senderId);
+        UserDTO sender = userSnapshotCache.get(senderId);
 
         // ✅ REUSE ConversationService
         Conversation conversation = conversationService.findOrCreateConversation(senderId, request.getReceiverId());
@@ -95,6 +100,27 @@ public class MessageService {
         return messages.map(this::mapToResponse);
     }
 
+    public CursorPage<MessageResponse> getConversationMessagesSlice(String conversationId, String userId, String cursor, int size) {
+        log.info("Getting message slice for conversation: {}", conversationId);
+
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        PageRequest firstRows = PageRequest.of(0, limit + 1);
+
+        List<Message> messages;
+        if (cursor == null) {
+            messages = messageRepository.findByConversationIdOrderByCreatedAtDescIdDesc(conversationId, firstRows);
+        } else {
+            PageCursor before = PageCursor.decode(cursor);
+            messages = messageRepository.findConversationMessagesBefore(conversationId, before.getCreatedAt(), before.getId(), firstRows);
+        }
+
+        conversationService.markAsRead(conversationId, userId);
+
+        return CursorPage.of(messages, limit,
+                message -> PageCursor.encode(message.getCreatedAt(), message.getId()),
+                this::mapToResponse);
+    }
+
     private MessageResponse mapToResponse(Message message) {
         return MessageResponse.builder()
                 .id(message.getId())
@@ -0,0 +1,260 @@
+package com.message_service.message_service.service;
+
+import com.message_service.message_service.event.UserEvent;
+import com.message_service.message_service.model.Conversation;
+import com.message_service.message_service.model.Message;
+import com.message_service.message_service.model.ProfilePropagation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Rewrites senderName and senderProfilePicture on a user's messages after PROFILE_UPDATED.
+ * The event only records a job; a scheduled worker leases one job at a time and walks the
+ * user's conversations in _id order, and each conversation's messages along
+ * conversation_cursor_index, so no index on senderId is needed. A batch collects at most
+ * messages-per-batch ids, however long a conversation is, and rewrites them with one
+ * updateMany. It checkpoints after each batch and backs off when Mongo slows down.
+ */
+@Service
+@Slf4j
+public class ProfilePropagationService {
+
+    public static final String PROFILE_UPDATED = "PROFILE_UPDATED";
+
+    private final MongoTemplate mongoTemplate;
+    private final Counter updated;
+    private final Timer batchLatency;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${profile.propagation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${profile.propagation.conversations-per-batch:20}")
+    private int batchSize;
+
+    @Value("${profile.propagation.messages-per-batch:500}")
+    private int messagesPerBatch;
+
+    @Value("${profile.propagation.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Value("${profile.propagation.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${profile.propagation.target-latency-ms:2}")
+    private long targetLatencyMs;
+
+    @Value("${profile.propagation.max-pause-ms:2000}")
+    private long maxPauseMs;
+
+    public ProfilePropagationService(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.updated = Counter.builder("profile.propagation.updated")
+                .description("Messages whose sender name and avatar were rewritten")
+                .tag("collection", "messages")
+                .register(meterRegistry);
+        this.batchLatency = Timer.builder("profile.propagation.batch.latency")
+                .description("Time to rewrite one batch of denormalized profile fields")
+                .register(meterRegistry);
+    }
+
+    // One shared group: each change has to be recorded once, not once per replica
+    @KafkaListener(topics = "user-events", groupId = "${profile.propagation.group-id}")
+    public void handleUserEvent(UserEvent event) {
+        if (!PROFILE_UPDATED.equals(event.getType()) || event.getUserId() == null) {
+            return;
+        }
+        Update update = new Update()
+                .set("username", event.getUsername())
+                .set("profilePicture", event.getProfilePicture())
+                .unset("lastConversationId")
+                .unset("lastMessageId")
+                .unset("lastCreatedAt")
+                .set("updated", 0)
+                .set("requestedAt", LocalDateTime.now())
+                .inc("generation", 1);
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(event.getUserId())), update, ProfilePropagation.class);
+    }
+
+    @Scheduled(fixedDelayString = "${profile.propagation.interval-ms:5000}")
+    public void propagatePending() {
+        if (!enabled) {
+            return;
+        }
+        int batches = 0;
+        ProfilePropagation job;
+        while (batches < maxBatchesPerRun && (job = claim()) != null) {
+            batches += run(job, maxBatchesPerRun - batches);
+        }
+    }
+
+    // Oldest unleased job; an expired lease means its worker died and the job resumes from its checkpoint
+    private ProfilePropagation claim() {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(new Criteria().orOperator(
+                        Criteria.where("leaseUntil").is(null),
+                        Criteria.where("leaseUntil").lt(now)))
+                .with(Sort.by("requestedAt"));
+        Update lease = new Update().set("leaseOwner", owner).set("leaseUntil", now.plus(Duration.ofMillis(leaseMs)));
+        return mongoTemplate.findAndModify(query, lease, FindAndModifyOptions.options().returnNew(true),
+                ProfilePropagation.class);
+    }
+
+    private int run(ProfilePropagation job, int budget) {
+        int batches = 0;
+        while (batches < budget) {
+            long started = System.nanoTime();
+            List<String> conversationIds = nextConversations(job);
+            List<String> messageIds = new ArrayList<>();
+            boolean full = false;
+            for (String conversationId : conversationIds) {
+                List<Message> page = nextMessages(job, conversationId, messagesPerBatch - messageIds.size());
+                page.forEach(message -> messageIds.add(message.getId()));
+                if (messageIds.size() == messagesPerBatch) {
+                    // Out of room; the conversation may have more, so remember where this batch stopped in it
+                    Message last = page.get(page.size() - 1);
+                    job.setLastMessageId(last.getId());
+                    job.setLastCreatedAt(last.getCreatedAt());
+                    full = true;
+                    break;
+                }
+                job.setLastConversationId(conversationId);
+                job.setLastMessageId(null);
+                job.setLastCreatedAt(null);
+            }
+
+            long rewritten = 0;
+            if (!messageIds.isEmpty()) {
+                rewritten = mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("_id").in(messageIds)),
+                        new Update()
+                                .set("senderName", job.getUsername())
+                                .set("senderProfilePicture", job.getProfilePicture()),
+                        Message.class).getModifiedCount();
+                updated.increment(rewritten);
+                job.setUpdated(job.getUpdated() + rewritten);
+            }
+            long elapsed = System.nanoTime() - started;
+            batchLatency.record(elapsed, TimeUnit.NANOSECONDS);
+            batches++;
+
+            if (!full && conversationIds.size() < batchSize) {
+                finish(job);
+                return batches;
+            }
+            if (!checkpoint(job) || !throttle(TimeUnit.NANOSECONDS.toMillis(elapsed), messageIds.size())) {
+                return batches;
+            }
+        }
+        // Out of budget for this run; hand the job back so the next run, here or on another replica, resumes it
+        release();
+        return batches;
+    }
+
+    // The user's conversations past the last finished one, in _id order
+    private List<String> nextConversations(ProfilePropagation job) {
+        Criteria criteria = Criteria.where("participants").is(job.getId());
+        if (job.getLastConversationId() != null) {
+            criteria = criteria.and("_id").gt(new ObjectId(job.getLastConversationId()));
+        }
+        Query page = Query.query(criteria).with(Sort.by("_id")).limit(batchSize);
+        page.fields().include("_id");
+        return mongoTemplate.find(page, Conversation.class).stream()
+                .map(Conversation::getId)
+                .collect(Collectors.toList());
+    }
+
+    // The user's messages in one conversation, newest first along conversation_cursor_index.
+    // Only the first conversation of a batch can have a saved position; it is cleared once that one is done
+    private List<Message> nextMessages(ProfilePropagation job, String conversationId, int limit) {
+        Criteria criteria = Criteria.where("conversationId").is(conversationId).and("senderId").is(job.getId());
+        if (job.getLastMessageId() != null) {
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(job.getLastCreatedAt()),
+                    Criteria.where("createdAt").is(job.getLastCreatedAt()).and("_id").lt(new ObjectId(job.getLastMessageId()))));
+        }
+        Query page = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .limit(limit);
+        page.fields().include("_id", "createdAt");
+        return mongoTemplate.find(page, Message.class);
+    }
+
+    /**
+     * Saves the position and extends the lease. Fails if a newer profile change restarted
+     * the job, in which case this worker lets go of it.
+     */
+    private boolean checkpoint(ProfilePropagation job) {
+        Update update = new Update()
+                .set("lastConversationId", job.getLastConversationId())
+                .set("lastMessageId", job.getLastMessageId())
+                .set("lastCreatedAt", job.getLastCreatedAt())
+                .set("updated", job.getUpdated())
+                .set("leaseUntil", LocalDateTime.now().plus(Duration.ofMillis(leaseMs)));
+        boolean saved = mongoTemplate.updateFirst(current(job), update, ProfilePropagation.class).getModifiedCount() > 0;
+        if (!saved) {
+            release();
+        }
+        return saved;
+    }
+
+    private void finish(ProfilePropagation job) {
+        if (mongoTemplate.remove(current(job), ProfilePropagation.class).getDeletedCount() > 0) {
+            log.info("Propagated profile of user {} to {} messages", job.getId(), job.getUpdated());
+        } else {
+            release();
+        }
+    }
+
+    private void release() {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("leaseOwner").is(owner)),
+                new Update().unset("leaseOwner").unset("leaseUntil"), ProfilePropagation.class);
+    }
+
+    private Query current(ProfilePropagation job) {
+        return Query.query(Criteria.where("_id").is(job.getId())
+                .and("generation").is(job.getGeneration())
+                .and("leaseOwner").is(owner));
+    }
+
+    /**
+     * Sleeps in proportion to how far the batch overshot the per-message latency target.
+     * Returns false if the run should stop here.
+     */
+    private boolean throttle(long elapsedMs, int messages) {
+        long perMessageMs = elapsedMs / Math.max(1, messages);
+        if (perMessageMs <= targetLatencyMs) {
+            return true;
+        }
+        long pause = Math.min(maxPauseMs, elapsedMs * perMessageMs / Math.max(1, targetLatencyMs));
+        log.debug("Propagation batch took {}ms ({}ms/message), pausing {}ms", elapsedMs, perMessageMs, pause);
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
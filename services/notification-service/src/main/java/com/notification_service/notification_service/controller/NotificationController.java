@@ -1,5 +1,6 @@
 package com.notification_service.notification_service.controller;
 
+import com.notification_service.notification_service.dto.CursorPage;
 import com.notification_service.notification_service.dto.NotificationRequest;
 import com.notification_service.notification_service.dto.NotificationResponse;
 import com.notification_service.notification_service.dto.NotificationSettingsDTO;
@@ -54,6 +55,24 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getUserNotifications(userId, unreadOnly, pageable));
     }
 
+    /**
+     * Cursor-paginated notifications - no total count, stable under inserts
+     * Pass the returned nextCursor to fetch the following slice
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<NotificationResponse>> getNotificationsSlice(
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestParam(defaultValue = "false") boolean unreadOnly,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (userId == null || userId.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(notificationService.getUserNotificationsSlice(userId, unreadOnly, cursor, size));
+    }
+
     @GetMapping("/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(
             @RequestHeader(value = "X-User-Id", required = false) String userId) {
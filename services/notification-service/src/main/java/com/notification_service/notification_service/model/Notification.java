@@ -3,6 +3,8 @@ package com.notification_service.notification_service.model;
 // Notification.java
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
@@ -10,6 +12,10 @@ import java.util.Map;
 
 @Data
 @Document(collection = "notifications")
+@CompoundIndexes({
+        @CompoundIndex(name = "user_cursor_index", def = "{'userId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_unread_cursor_index", def = "{'userId': 1, 'isRead': 1, 'createdAt': -1, '_id': -1}")
+})
 public class Notification {
     @Id
     private String id;
@@ -3,9 +3,11 @@ package com.notification_service.notification_service.repository;
 // NotificationRepository.java
 
 import com.notification_service.notification_service.model.Notification;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -20,4 +22,17 @@ public interface NotificationRepository extends MongoRepository<Notification, St
     List<Notification> findByUserIdAndIsReadFalse(String userId);
 
     void deleteByUserIdAndCreatedAtBefore(String userId, LocalDateTime date);
+
+    // Keyset pagination over (createdAt, _id); returns a List so no count query runs
+    List<Notification> findByUserIdOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
+
+    List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
+
+    @Query(value = "{ 'userId': ?0, $or: [ { 'createdAt': { $lt: ?1 } }, { 'createdAt': ?1, '_id': { $lt: ?2 } } ] }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Notification> findUserNotificationsBefore(String userId, LocalDateTime createdAt, ObjectId id, Pageable pageable);
+
+    @Query(value = "{ 'userId': ?0, 'isRead': false, $or: [ { 'createdAt': { $lt: ?1 } }, { 'createdAt': ?1, '_id': { $lt: ?2 } } ] }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Notification> findUnreadUserNotificationsBefore(String userId, LocalDateTime createdAt, ObjectId id, Pageable pageable);
 }
@@ -1,15 +1,17 @@
 package com.notification_service.notification_service.service;
 
 // NotificationService.java
-import com.notification_service.notification_service.client.UserServiceClient;
 import com.notification_service.notification_service.dto.*;
 import com.notification_service.notification_service.model.Notification;
 import com.notification_service.notification_service.model.NotificationSettings;
 import com.notification_service.notification_service.repository.NotificationRepository;
 import com.notification_service.notification_service.repository.NotificationSettingsRepository;
+import com.notification_service.notification_service.util.PageCursor;
+import com.user_snapshot_cache.UserSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
@@ -25,11 +27,13 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final NotificationSettingsRepository settingsRepository;
-    private final UserServiceClient userServiceClient;
+    private final UserSnapshotCache<UserDTO> userSnapshotCache;
     private final EmailService emailService;
     private final PushNotificationService pushNotificationService;
     private final SimpMessagingTemplate messagingTemplate;
 
+    private static final int MAX_SLICE_SIZE = 100;
+
     public NotificationResponse createNotification(NotificationRequest request) {
         // Get user settings
         NotificationSettings settings = getOrCreateSettings(request.getUserId());
@@ -38,7 +42,7 @@ public class NotificationService {
         // Get sender info if senderId is provided
         UserDTO sender = null;
         if (request.getSenderId() != null) {
-            sender = userServiceClient.getUserById(request.getSenderId());
+            sender = userSnapshotCache.get(request.getSenderId());
         }
 
         // Create notification
@@ -69,7 +73,7 @@ public class NotificationService {
         }
 
         if (shouldSendEmail(settings, notification.getType())) {
-            UserDTO user = userServiceClient.getUserById(request.getUserId());
+            UserDTO user = userSnapshotCache.get(request.getUserId());
             emailService.sendNotificationEmail(saved, user.getEmail());
             saved.setEmailSent(true);
         }
@@ -107,7 +111,7 @@ public class NotificationService {
         }
 
         if (shouldSendEmail(settings, notification.getType())) {
-            UserDTO user = userServiceClient.getUserById(request.getUserId());
+            UserDTO user = userSnapshotCache.get(request.getUserId());
             emailService.sendNotificationEmail(saved, user.getEmail());
             saved.setEmailSent(true);
         }
@@ -149,7 +153,7 @@ public class NotificationService {
         }
 
         if (shouldSendEmail(settings, notification.getType())) {
-            UserDTO user = userServiceClient.getUserById(request.getUserId());
+            UserDTO user = userSnapshotCache.get(request.getUserId());
             emailService.sendNotificationEmail(saved, user.getEmail());
             saved.setEmailSent(true);
         }
@@ -175,6 +179,27 @@ public class NotificationService {
         return notifications.map(this::mapToResponse);
     }
 
+    public CursorPage<NotificationResponse> getUserNotificationsSlice(String userId, boolean unreadOnly, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        PageRequest firstRows = PageRequest.of(0, limit + 1);
+        PageCursor before = cursor != null ? PageCursor.decode(cursor) : null;
+
+        List<Notification> notifications;
+        if (before == null) {
+            notifications = unreadOnly
+                    ? notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDescIdDesc(userId, firstRows)
+                    : notificationRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, firstRows);
+        } else {
+            notifications = unreadOnly
+                    ? notificationRepository.findUnreadUserNotificationsBefore(userId, before.getCreatedAt(), before.getId(), firstRows)
+                    : notificationRepository.findUserNotificationsBefore(userId, before.getCreatedAt(), before.getId(), firstRows);
+        }
+
+        return CursorPage.of(notifications, limit,
+                notification -> PageCursor.encode(notification.getCreatedAt(), notification.getId()),
+                this::mapToResponse);
+    }
+
     public void markAsRead(String notificationId, String userId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
@@ -4,15 +4,20 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class PostEvent {
-    private String type;         // e.g., "POST_LIKED", "POST_COMMENTED"
+    private String type;         // e.g., "POST_LIKED", "COMMENT", "POST_CREATED"
     private String postId;
     private String postOwnerId;  // owner of the post
     private String userId;       // user who liked/commented
     private String username;     // username of the user who liked/commented
     private String comment;      // present only if COMMENT
+    private List<String> postIds; // present only if POST_INVALIDATED
+    private PostSnapshot post;    // present only if POST_CREATED, POST_UPDATED, POST_DELETED or POST_PURGED
+    private boolean replay;       // republished by a backfill, not a new write
 }
 
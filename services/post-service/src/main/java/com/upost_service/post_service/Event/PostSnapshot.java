@@ -0,0 +1,29 @@
+package com.upost_service.post_service.Event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Compact copy of a post carried by POST_CREATED/UPDATED/DELETED, enough to build read models from
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostSnapshot {
+    private String id;
+    private String userId;
+    private String username;
+    private String content;
+    private List<String> hashtags;
+    private List<String> mentions;
+    private List<String> images;     // medium renditions once processed
+    private String videoUrl;
+    private String mediaStatus;
+    private boolean deleted;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
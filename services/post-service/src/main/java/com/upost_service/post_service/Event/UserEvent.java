@@ -0,0 +1,14 @@
+package com.upost_service.post_service.Event;
+
+import lombok.Data;
+
+// Events from user-events; the fields user-service sets on PROFILE_UPDATED and FOLLOW/UNFOLLOW
+@Data
+public class UserEvent {
+    private String type;
+    private String userId;
+    private String targetUserId;
+    private String username;
+    private String fullName;
+    private String profilePicture;
+}
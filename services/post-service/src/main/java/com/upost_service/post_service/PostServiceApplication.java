@@ -4,10 +4,12 @@ package com.upost_service.post_service;
 	import org.springframework.boot.autoconfigure.SpringBootApplication;
 	import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 	import org.springframework.cloud.openfeign.EnableFeignClients;
+	import org.springframework.scheduling.annotation.EnableScheduling;
 
 	@SpringBootApplication
 	@EnableDiscoveryClient
 	@EnableFeignClients
+	@EnableScheduling
 	public class PostServiceApplication {
 
 		public static void main(String[] args) {
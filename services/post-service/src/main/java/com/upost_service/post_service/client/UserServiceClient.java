@@ -1,9 +1,13 @@
 package com.upost_service.post_service.client;
 
+import com.upost_service.post_service.dto.CursorPage;
 import com.upost_service.post_service.dto.UserDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import java.util.List;
 
 @FeignClient(name = "user-service")
@@ -12,6 +16,16 @@ public interface UserServiceClient {
     @GetMapping("/api/users/internal/{userId}")
     UserDTO getUserById(@PathVariable String userId);
 
-    @GetMapping("/api/users/internal/{userId}/following")
-    List<String> getUserFollowing(@PathVariable String userId);
+    @PostMapping("/api/users/internal/batch")
+    List<UserDTO> getUsersByIds(@RequestBody List<String> userIds);
+
+    @GetMapping("/api/users/internal/{userId}/following/page")
+    CursorPage<String> getUserFollowingPage(@PathVariable String userId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam int size);
+
+    @GetMapping("/api/users/internal/{userId}/followers/page")
+    CursorPage<String> getUserFollowersPage(@PathVariable String userId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam int size);
 }
@@ -0,0 +1,73 @@
+package com.upost_service.post_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Value("${feed.fanout.pool-size:4}")
+    private int fanoutPoolSize;
+
+    @Value("${feed.fanout.queue-capacity:1000}")
+    private int fanoutQueueCapacity;
+
+    @Value("${media.processing.pool-size:2}")
+    private int mediaPoolSize;
+
+    @Value("${media.processing.queue-capacity:200}")
+    private int mediaQueueCapacity;
+
+    @Value("${feed.ranking.parallelism:8}")
+    private int rankingParallelism;
+
+    // Background pool for timeline fan-out, bounded so a burst of posts can't exhaust memory
+    @Bean(name = "feedFanoutExecutor")
+    public Executor feedFanoutExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fanoutPoolSize);
+        executor.setMaxPoolSize(fanoutPoolSize);
+        executor.setQueueCapacity(fanoutQueueCapacity);
+        executor.setThreadNamePrefix("feed-fanout-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // Image variants are CPU-heavy, so this pool stays small; a full queue pushes back onto the uploader
+    @Bean(name = "mediaProcessingExecutor")
+    public ThreadPoolTaskExecutor mediaProcessingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mediaPoolSize);
+        executor.setMaxPoolSize(mediaPoolSize);
+        executor.setQueueCapacity(mediaQueueCapacity);
+        executor.setThreadNamePrefix("media-processing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    // Per-author candidate queries of the ranked feed run here in parallel
+    @Bean(name = "feedRankingExecutor")
+    public Executor feedRankingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(rankingParallelism);
+        executor.setMaxPoolSize(rankingParallelism);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("feed-ranking-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,22 @@
+package com.upost_service.post_service.config;
+
+import com.media_blob_store.BlobStore;
+import com.media_blob_store.MediaFileServer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@Configuration
+public class BlobStoreConfig {
+
+    @Bean
+    public BlobStore blobStore(MongoTemplate mongoTemplate, @Value("${upload.path:uploads}/media") String root) {
+        return new BlobStore(mongoTemplate, root, "post_media_blobs");
+    }
+
+    @Bean
+    public MediaFileServer mediaFileServer() {
+        return new MediaFileServer();
+    }
+}
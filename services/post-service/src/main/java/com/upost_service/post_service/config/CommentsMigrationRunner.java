@@ -0,0 +1,99 @@
+package com.upost_service.post_service.config;
+
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.upost_service.post_service.model.CommentBucket;
+import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.service.CommentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Moves the legacy embedded Post.comments arrays into comment_buckets and
+ * materializes commentsCount and recentComments. A post's old buckets are
+ * replaced before writing, so an interrupted run can simply be restarted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CommentsMigrationRunner implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${migration.comments.enabled:true}")
+    private boolean enabled;
+
+    @Value("${migration.comments.batch-size:200}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        String collection = mongoTemplate.getCollectionName(Post.class);
+        int migrated = 0;
+
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection)
+                .find(Filters.exists("comments"))
+                .projection(Projections.include("_id"))
+                .batchSize(batchSize)
+                .iterator()) {
+
+            while (cursor.hasNext()) {
+                Object rawId = cursor.next().get("_id");
+                Query byId = Query.query(Criteria.where("_id").is(rawId));
+                Document legacy = mongoTemplate.findOne(byId, Document.class, collection);
+                if (legacy == null) {
+                    continue;
+                }
+
+                String postId = rawId.toString();
+                List<Post.Comment> comments = new ArrayList<>();
+                for (Document raw : legacy.getList("comments", Document.class, List.of())) {
+                    comments.add(mongoTemplate.getConverter().read(Post.Comment.class, raw));
+                }
+                comments.sort(Comparator.comparing(Post.Comment::getCreatedAt).thenComparing(Post.Comment::getId));
+
+                mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), CommentBucket.class);
+                for (int i = 0; i < comments.size(); i += CommentService.BUCKET_SIZE) {
+                    List<Post.Comment> chunk = comments.subList(i, Math.min(i + CommentService.BUCKET_SIZE, comments.size()));
+                    CommentBucket bucket = new CommentBucket();
+                    bucket.setPostId(postId);
+                    bucket.setCount(chunk.size());
+                    bucket.setComments(new ArrayList<>(chunk));
+                    bucket.setFirstCreatedAt(chunk.get(0).getCreatedAt());
+                    bucket.setLastCreatedAt(chunk.get(chunk.size() - 1).getCreatedAt());
+                    mongoTemplate.insert(bucket);
+                }
+
+                List<Post.Comment> recent = comments.subList(
+                        Math.max(0, comments.size() - CommentService.RECENT_COMMENTS), comments.size());
+                mongoTemplate.updateFirst(byId, new Update()
+                        .set("commentsCount", comments.size())
+                        .set("recentComments", new ArrayList<>(recent))
+                        .unset("comments"), Post.class);
+                migrated++;
+            }
+        }
+
+        if (migrated > 0) {
+            log.info("Migrated embedded comments of {} posts into comment_buckets", migrated);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.upost_service.post_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Weights and bounds for the ranked feed (feed.ranking.* in application.yml).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "feed.ranking")
+public class FeedRankingProperties {
+    // A post loses half its recency score every this many hours
+    private double recencyHalfLifeHours = 12;
+    private double likeWeight = 1.0;
+    private double commentWeight = 2.0;
+    // Boost per (log) past like the viewer gave the author
+    private double affinityWeight = 0.5;
+    // Candidates pulled per followed author, and how far back to look
+    private int candidatesPerAuthor = 20;
+    private int candidateWindowHours = 72;
+    private int maxAuthors = 500;
+    private int parallelism = 8;
+}
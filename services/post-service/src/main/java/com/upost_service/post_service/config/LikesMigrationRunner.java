@@ -0,0 +1,83 @@
+package com.upost_service.post_service.config;
+
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.model.PostLike;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves the legacy embedded Post.likes sets into the post_likes collection
+ * and materializes likesCount. Safe to re-run: edges are upserted and the
+ * embedded set is removed once copied.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LikesMigrationRunner implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${migration.likes.enabled:true}")
+    private boolean enabled;
+
+    @Value("${migration.likes.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        String collection = mongoTemplate.getCollectionName(Post.class);
+        int migrated = 0;
+
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection)
+                .find(Filters.exists("likes"))
+                .projection(Projections.include("userId", "likes"))
+                .batchSize(batchSize)
+                .iterator()) {
+
+            while (cursor.hasNext()) {
+                Document post = cursor.next();
+                String postId = post.getObjectId("_id").toHexString();
+                List<String> likes = post.getList("likes", String.class, List.of());
+
+                if (!likes.isEmpty()) {
+                    BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PostLike.class);
+                    for (String userId : likes) {
+                        bulk.upsert(Query.query(Criteria.where("postId").is(postId).and("userId").is(userId)),
+                                new Update()
+                                        .setOnInsert("postOwnerId", post.getString("userId"))
+                                        .setOnInsert("createdAt", LocalDateTime.now()));
+                    }
+                    bulk.execute();
+                }
+
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(post.getObjectId("_id"))),
+                        new Update().set("likesCount", likes.size()).unset("likes"), collection);
+                migrated++;
+            }
+        }
+
+        if (migrated > 0) {
+            log.info("Migrated embedded likes of {} posts into post_likes", migrated);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.upost_service.post_service.config;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import com.upost_service.post_service.model.Post;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Replaces the full read indexes on posts with the partial ones declared on Post, and gives
+ * posts deleted before deletedAt existed their updatedAt as deletion time so the purge job
+ * can reach them. Both steps are no-ops once done.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostIndexMigrationRunner implements ApplicationRunner {
+
+    // Superseded by user_created_live_index and created_live_index
+    private static final List<String> LEGACY_INDEXES = List.of("user_created_cursor_index", "created_index");
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${migration.post-indexes.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        MongoCollection<Document> posts = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Post.class));
+
+        Set<String> existing = new HashSet<>();
+        posts.listIndexes().forEach(index -> existing.add(index.getString("name")));
+        for (String name : LEGACY_INDEXES) {
+            if (existing.contains(name)) {
+                posts.dropIndex(name);
+                log.info("Dropped legacy posts index {}", name);
+            }
+        }
+
+        long backfilled = posts.updateMany(
+                Filters.and(Filters.eq("isDeleted", true), Filters.exists("deletedAt", false)),
+                List.of(Updates.set("deletedAt", "$updatedAt"))).getModifiedCount();
+        if (backfilled > 0) {
+            log.info("Backfilled deletedAt on {} soft-deleted posts", backfilled);
+        }
+    }
+}
@@ -1,31 +1,33 @@
 package com.upost_service.post_service.controller;
 
-import org.springframework.core.io.Resource;
-import org.springframework.http.ResponseEntity;
+import com.media_blob_store.MediaFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Optional;
 
 @RestController
+@RequiredArgsConstructor
 public class FileController {
 
+    private final FileStorageService fileStorageService;
+    private final MediaFileServer mediaFileServer;
+
+    // Post media is public; ranges, conditional GETs and cache headers are handled by MediaFileServer
     @GetMapping("/uploads/{type}/{filename:.+}")
-    public ResponseEntity<Resource> serveFile(@PathVariable String type, @PathVariable String filename) {
-        Path file = Path.of("uploads", type, filename);
-        Resource resource = new org.springframework.core.io.FileSystemResource(file.toFile());
-        if (!resource.exists()) {
-            return ResponseEntity.notFound().build();
-        }
-        try {
-            return ResponseEntity.ok()
-                    .header("Content-Type", Files.probeContentType(file))
-                    .body(resource);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    public void serveFile(@PathVariable String type, @PathVariable String filename,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> file = fileStorageService.resolve("/uploads/" + type + "/" + filename);
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        mediaFileServer.serve(file.get(), false, request, response);
     }
 }
@@ -1,53 +1,83 @@
 package com.upost_service.post_service.controller;
 
+import com.media_blob_store.BlobStore;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.util.Optional;
 
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
 
-    // Base directory to store files, configure via application.properties
+    // Content-addressed uploads, e.g. "/uploads/media/<sha256>.jpg"
+    public static final String MEDIA_PREFIX = "/uploads/media/";
+
+    private final BlobStore blobStore;
+
+    // Base directory of files stored before uploads became content-addressed
     @Value("${upload.path:uploads}")
     private String uploadDir;
 
     // Save image file and return relative URL/path
     public String saveImage(MultipartFile file) {
-        return saveFile(file, "images");
+        return saveFile(file);
     }
 
     // Save video file and return relative URL/path
     public String saveVideo(MultipartFile file) {
-        return saveFile(file, "videos");
+        return saveFile(file);
+    }
+
+    // Save generated bytes (e.g. an image rendition) and return relative URL/path
+    public String saveImage(InputStream in, String ext) {
+        return MEDIA_PREFIX + blobStore.store(in, ext);
     }
 
-    // General method to save file in subfolder and return URL
-    private String saveFile(MultipartFile file, String subfolder) {
-        try {
-            String ext = getFileExtension(file.getOriginalFilename());
-            String uniqueName = UUID.randomUUID().toString() + (ext.isEmpty() ? "" : "." + ext);
-            Path dir = Path.of(uploadDir, subfolder);
-            Files.createDirectories(dir);
-            Path filePath = dir.resolve(uniqueName);
-
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            // Return relative path for serving, e.g. "/uploads/images/abc123.jpg"
-            return "/uploads/" + subfolder + "/" + uniqueName;
+    // Identical uploads share one file; the URL depends only on the content, so it never goes stale
+    private String saveFile(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return MEDIA_PREFIX + blobStore.store(in, getFileExtension(file.getOriginalFilename()));
         } catch (IOException e) {
             throw new RuntimeException("Could not store file " + file.getOriginalFilename(), e);
         }
     }
 
+    // Drops this reference to the file; it is deleted once no post uses it
+    public void release(String url) {
+        if (url != null && url.startsWith(MEDIA_PREFIX)) {
+            blobStore.release(url.substring(MEDIA_PREFIX.length()));
+        }
+    }
+
+    // Maps a URL returned by saveImage/saveVideo back to the file on disk
+    public Optional<Path> resolve(String url) {
+        if (url.startsWith(MEDIA_PREFIX)) {
+            String key = url.substring(MEDIA_PREFIX.length());
+            return blobStore.isKey(key) ? Optional.of(blobStore.path(key)) : Optional.empty();
+        }
+
+        // Legacy "/uploads/<subfolder>/<uuid>.<ext>" files; refuse "../" escapes
+        String relative = url.startsWith("/uploads/") ? url.substring("/uploads/".length()) : url;
+        Path base = Path.of(uploadDir).normalize();
+        Path file = base.resolve(relative).normalize();
+        // In-progress resumable uploads used to be written under "partial/"; never serve them
+        if (!file.startsWith(base) || file.startsWith(base.resolve("partial"))) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
     private String getFileExtension(String filename) {
+        if (filename == null) {
+            return "";
+        }
         int idx = filename.lastIndexOf(".");
         return (idx > 0) ? filename.substring(idx + 1) : "";
     }
 }
-
@@ -0,0 +1,41 @@
+package com.upost_service.post_service.controller;
+
+import com.upost_service.post_service.dto.AdminPostResponse;
+import com.upost_service.post_service.service.PostService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Called by admin-service only; the gateway does not route /api/posts/admin/**
+@RestController
+@RequestMapping("/api/posts/admin")
+@RequiredArgsConstructor
+public class PostAdminController {
+
+    private final PostService postService;
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<AdminPostResponse>> searchPosts(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String userId,
+            Pageable pageable) {
+        return ResponseEntity.ok(postService.adminSearchPosts(search, userId, pageable));
+    }
+
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuildSearchIndex() {
+        return ResponseEntity.ok(Map.of("indexed", postService.rebuildSearchIndex()));
+    }
+
+    // Republishes existing posts to post-events; call again with the returned lastId until it is null
+    @PostMapping("/events/replay")
+    public ResponseEntity<Map<String, Object>> replayPostEvents(
+            @RequestParam(required = false) String afterId,
+            @RequestParam(defaultValue = "10000") int limit) {
+        return ResponseEntity.ok(postService.replayPostEvents(afterId, limit));
+    }
+}
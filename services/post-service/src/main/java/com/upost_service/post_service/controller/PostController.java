@@ -1,8 +1,13 @@
 package com.upost_service.post_service.controller;
 
+import com.upost_service.post_service.dto.BatchPostRequest;
+import com.upost_service.post_service.dto.BatchPostResult;
 import com.upost_service.post_service.dto.CommentRequest;
+import com.upost_service.post_service.dto.CommentResponse;
 import com.upost_service.post_service.dto.CreatePostRequest;
+import com.upost_service.post_service.dto.CursorPage;
 import com.upost_service.post_service.dto.PostResponse;
+import com.upost_service.post_service.dto.TrendingHashtagResponse;
 import com.upost_service.post_service.service.PostService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -35,6 +40,33 @@ public class PostController {
                 .body(postService.createPost(userId, request, images, video));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<PostResponse>> searchPosts(
+            @RequestHeader("X-User-Id") String currentUserId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String hashtag,
+            @RequestParam(required = false) String mention,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.searchPosts(currentUserId, q, userId, hashtag, mention, cursor, size));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingHashtagResponse>> getTrending(
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(postService.getTrending(window, limit));
+    }
+
+    // Services calling without a user context get isLiked=false
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchPostResult>> getPostsBatch(
+            @Valid @RequestBody BatchPostRequest request,
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+        return ResponseEntity.ok(postService.getPostsBatch(request.getPostIds(), userId));
+    }
+
     @GetMapping("/{postId}")
     public ResponseEntity<PostResponse> getPost(
             @PathVariable String postId,
@@ -52,15 +84,36 @@ public class PostController {
         return ResponseEntity.ok(postService.getUserPosts(userId, currentUserId, pageable));
     }
 
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<CursorPage<PostResponse>> getUserPostsSlice(
+            @PathVariable String userId,
+            @RequestHeader("X-User-Id") String currentUserId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.getUserPostsSlice(userId, currentUserId, cursor, size));
+    }
+
     @GetMapping("/feed")
     public ResponseEntity<Page<PostResponse>> getFeed(
             @RequestHeader("X-User-Id") String userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "chronological") String mode) {
         Pageable pageable = PageRequest.of(page, size);
+        if ("ranked".equalsIgnoreCase(mode)) {
+            return ResponseEntity.ok(postService.getRankedFeed(userId, pageable));
+        }
         return ResponseEntity.ok(postService.getFeed(userId, pageable));
     }
 
+    @GetMapping("/feed/cursor")
+    public ResponseEntity<CursorPage<PostResponse>> getFeedSlice(
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.getFeedSlice(userId, cursor, size));
+    }
+
     @PostMapping("/{postId}/like")
     public ResponseEntity<PostResponse> likePost(
             @PathVariable String postId,
@@ -83,6 +136,14 @@ public class PostController {
         return ResponseEntity.ok(postService.addComment(postId, userId, request));
     }
 
+    @GetMapping("/{postId}/comments")
+    public ResponseEntity<CursorPage<CommentResponse>> getComments(
+            @PathVariable String postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(postService.getComments(postId, cursor, size));
+    }
+
     @DeleteMapping("/{postId}")
     public ResponseEntity<Map<String, String>> deletePost(
             @PathVariable String postId,
@@ -0,0 +1,69 @@
+package com.upost_service.post_service.controller;
+
+import com.upost_service.post_service.dto.CreateUploadRequest;
+import com.upost_service.post_service.dto.UploadSessionResponse;
+import com.upost_service.post_service.service.UploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Resumable chunked uploads: POST a session, PUT byte ranges with Content-Range,
+ * GET the session to find where to resume, then POST /complete.
+ * The resulting uploadId goes into CreatePostRequest.videoUploadId.
+ */
+@RestController
+@RequestMapping("/api/posts/uploads")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class UploadController {
+
+    private final UploadService uploadService;
+
+    @PostMapping
+    public ResponseEntity<UploadSessionResponse> createUpload(
+            @Valid @RequestBody CreateUploadRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(uploadService.createSession(userId, request));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionResponse> getUpload(
+            @PathVariable String uploadId,
+            @RequestHeader("X-User-Id") String userId) {
+        return ResponseEntity.ok(uploadService.getSession(uploadId, userId));
+    }
+
+    // The raw request body is the chunk; it is never parsed as multipart or buffered
+    @PutMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionResponse> uploadChunk(
+            @PathVariable String uploadId,
+            @RequestHeader("X-User-Id") String userId,
+            @RequestHeader(HttpHeaders.CONTENT_RANGE) String contentRange,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(uploadService.writeChunk(uploadId, userId, contentRange, request.getInputStream()));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<UploadSessionResponse> completeUpload(
+            @PathVariable String uploadId,
+            @RequestHeader("X-User-Id") String userId) {
+        return ResponseEntity.ok(uploadService.complete(uploadId, userId));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Map<String, String>> abortUpload(
+            @PathVariable String uploadId,
+            @RequestHeader("X-User-Id") String userId) {
+        uploadService.abort(uploadId, userId);
+        return ResponseEntity.ok(Map.of("message", "Upload cancelled"));
+    }
+}
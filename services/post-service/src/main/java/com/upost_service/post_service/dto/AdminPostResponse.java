@@ -0,0 +1,22 @@
+package com.upost_service.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AdminPostResponse {
+    private String postId;
+    private String content;
+    private String userId;
+    private String username;
+    private int likesCount;
+    private int commentsCount;
+    private LocalDateTime createdAt;
+}
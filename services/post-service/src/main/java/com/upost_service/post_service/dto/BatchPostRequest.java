@@ -0,0 +1,14 @@
+package com.upost_service.post_service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchPostRequest {
+    @NotEmpty(message = "Post IDs are required")
+    @Size(max = 500, message = "At most 500 post IDs per batch")
+    private List<String> postIds;
+}
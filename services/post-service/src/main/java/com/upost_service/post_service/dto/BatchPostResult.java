@@ -0,0 +1,18 @@
+package com.upost_service.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchPostResult {
+    public static final String FOUND = "found";
+    public static final String NOT_FOUND = "not_found";
+    public static final String DELETED = "deleted";
+
+    private String postId;
+    private String status;      // found, not_found or deleted
+    private PostResponse post;  // only set when found
+}
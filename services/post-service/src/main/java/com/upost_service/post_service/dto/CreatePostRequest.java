@@ -13,4 +13,5 @@ public class CreatePostRequest {
     @NotBlank(message = "Content is required")
     private String content;
     private String postType;
+    private String videoUploadId;  // a completed chunked upload to attach instead of a video part
 }
\ No newline at end of file
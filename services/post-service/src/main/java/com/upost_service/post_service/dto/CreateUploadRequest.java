@@ -0,0 +1,13 @@
+package com.upost_service.post_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class CreateUploadRequest {
+    @NotBlank(message = "File name is required")
+    private String fileName;
+    @Positive(message = "Size must be positive")
+    private long size;
+}
@@ -0,0 +1,18 @@
+package com.upost_service.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImageVariantResponse {
+    private String original;
+    private String medium;
+    private String thumbnail;
+    private int width;
+    private int height;
+}
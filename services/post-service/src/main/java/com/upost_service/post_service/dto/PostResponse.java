@@ -19,7 +19,9 @@ public class PostResponse {
     private String username;
     private String userProfilePicture;
     private String content;
-    private List<String> images;        // List of image URLs
+    private List<String> images;        // Medium-size image URLs once processed, originals until then
+    private List<ImageVariantResponse> imageVariants;
+    private String mediaStatus;         // processing, ready or failed
     private String video;               // URL for video
     private int likesCount;
     private int commentsCount;
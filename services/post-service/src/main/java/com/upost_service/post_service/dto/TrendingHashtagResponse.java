@@ -0,0 +1,13 @@
+package com.upost_service.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrendingHashtagResponse {
+    private String hashtag;
+    private long count;     // estimated posts in the window; may slightly overcount
+}
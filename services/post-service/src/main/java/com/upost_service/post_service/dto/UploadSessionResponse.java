@@ -0,0 +1,22 @@
+package com.upost_service.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSessionResponse {
+    private String uploadId;
+    private String fileName;
+    private long size;
+    private long offset;                 // bytes received contiguously from the start; resume from here
+    private long receivedBytes;          // all bytes received, including ranges past a gap
+    private List<long[]> missingRanges;  // [start, end) pairs still to send
+    private String status;               // active, finalizing or complete
+}
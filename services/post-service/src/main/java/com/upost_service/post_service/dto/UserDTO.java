@@ -6,4 +6,5 @@ public class UserDTO {
     private String id;
     private String username;
     private String profilePicture;
+    private Integer followersCount;
 }
@@ -0,0 +1,32 @@
+package com.upost_service.post_service.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fixed-size, time-ordered chunk of one post's comments.
+ * New comments go into the post's open bucket until it holds CommentService.BUCKET_SIZE.
+ */
+@Data
+@Document(collection = "comment_buckets")
+@CompoundIndexes({
+        @CompoundIndex(name = "post_open_bucket_index", def = "{'postId': 1, 'count': 1}"),
+        @CompoundIndex(name = "post_bucket_time_index", def = "{'postId': 1, 'firstCreatedAt': -1}"),
+        @CompoundIndex(name = "comment_user_index", def = "{'comments.userId': 1, '_id': 1}")
+})
+public class CommentBucket {
+    @Id
+    private String id;
+    private String postId;
+    private int count;
+    private List<Post.Comment> comments = new ArrayList<>();
+    private LocalDateTime firstCreatedAt;
+    private LocalDateTime lastCreatedAt;
+}
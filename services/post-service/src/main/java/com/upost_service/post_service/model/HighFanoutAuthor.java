@@ -0,0 +1,20 @@
+package com.upost_service.post_service.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Author whose posts are not fanned out on write because of their follower count.
+ * Their posts are merged into followers' feeds at read time instead.
+ */
+@Data
+@Document(collection = "high_fanout_authors")
+public class HighFanoutAuthor {
+    @Id
+    private String userId;
+    private long followersCount;
+    private LocalDateTime updatedAt;
+}
@@ -2,6 +2,8 @@ package com.upost_service.post_service.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -10,7 +12,23 @@ import java.util.*;
 
 @Data
 @Document(collection = "posts")
+@CompoundIndexes({
+        // Read indexes cover live posts only; every read filters isDeleted: false
+        @CompoundIndex(name = "user_created_live_index", def = "{'userId': 1, 'createdAt': -1, '_id': -1}",
+                partialFilter = "{ 'isDeleted': false }"),
+        @CompoundIndex(name = "created_live_index", def = "{'createdAt': -1}",
+                partialFilter = "{ 'isDeleted': false }"),
+        // Only soft-deleted posts, in the order the purge job reaches them
+        @CompoundIndex(name = "deleted_purge_index", def = "{'deletedAt': 1}",
+                partialFilter = "{ 'isDeleted': true }"),
+        // Posts carrying a given user's comment, for profile propagation
+        @CompoundIndex(name = "recent_comment_user_index", def = "{'recentComments.userId': 1, '_id': 1}")
+})
 public class Post {
+    public static final String MEDIA_PROCESSING = "processing";
+    public static final String MEDIA_READY = "ready";
+    public static final String MEDIA_FAILED = "failed";
+
     @Id
     private String id;
     private String userId;
@@ -18,14 +36,28 @@ public class Post {
     private String userProfilePicture;
     private String content;
     private List<String> images = new ArrayList<>();  // URLs to uploaded images
+    private List<ImageVariant> imageVariants = new ArrayList<>();  // filled in by MediaProcessingService
+    private String mediaStatus = MEDIA_READY;  // processing until image variants exist
     private String videoUrl;  // URL/path for uploaded video
-    private Set<String> likes = new HashSet<>();
-    private List<Comment> comments = new ArrayList<>();
+    private int likesCount = 0;  // materialized from the post_likes collection
+    private int commentsCount = 0;
+    private List<Comment> recentComments = new ArrayList<>();  // newest last, capped; full history lives in comment_buckets
     private int sharesCount = 0;
     private boolean isDeleted = false;
+    private LocalDateTime deletedAt;  // start of the purge grace period
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Derived renditions of one uploaded image, metadata stripped
+    @Data
+    public static class ImageVariant {
+        private String original;
+        private String medium;
+        private String thumbnail;
+        private int width;
+        private int height;
+    }
+
     // Embedded Comment class
     @Data
     public static class Comment {
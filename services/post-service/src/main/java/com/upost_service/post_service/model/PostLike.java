@@ -0,0 +1,28 @@
+package com.upost_service.post_service.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One like of one post by one user. The unique (postId, userId) index
+ * makes liking idempotent without reading the post.
+ */
+@Data
+@Document(collection = "post_likes")
+@CompoundIndexes({
+        @CompoundIndex(name = "post_user_unique_index", def = "{'postId': 1, 'userId': 1}", unique = true),
+        @CompoundIndex(name = "user_owner_index", def = "{'userId': 1, 'postOwnerId': 1}")
+})
+public class PostLike {
+    @Id
+    private String id;
+    private String postId;
+    private String userId;
+    private String postOwnerId;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,59 @@
+package com.upost_service.post_service.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model for post lists and the shared post cache: exactly the fields a PostResponse
+ * is built from, loaded with a field projection so legacy arrays and write-only
+ * fields never leave Mongo. Counts are the materialized fields, never array sizes.
+ */
+@Data
+public class PostSummary {
+
+    // Projection used by every summary query; recentComments is capped server-side as well
+    public static final String PROJECTION = "{ 'userId': 1, 'username': 1, 'userProfilePicture': 1, 'content': 1, "
+            + "'images': 1, 'imageVariants': 1, 'mediaStatus': 1, 'videoUrl': 1, "
+            + "'likesCount': 1, 'commentsCount': 1, 'sharesCount': 1, 'isDeleted': 1, 'createdAt': 1, "
+            + "'recentComments': { $slice: -3 } }";
+
+    private String id;
+    private String userId;
+    private String username;
+    private String userProfilePicture;
+    private String content;
+    private List<String> images = new ArrayList<>();
+    private List<Post.ImageVariant> imageVariants = new ArrayList<>();
+    private String mediaStatus = Post.MEDIA_READY;
+    private String videoUrl;
+    private int likesCount;
+    private int commentsCount;
+    private int sharesCount;
+    private boolean isDeleted;
+    private List<Post.Comment> recentComments = new ArrayList<>();
+    private LocalDateTime createdAt;
+
+    // For write paths that already hold the full document
+    public static PostSummary of(Post post) {
+        PostSummary summary = new PostSummary();
+        summary.setId(post.getId());
+        summary.setUserId(post.getUserId());
+        summary.setUsername(post.getUsername());
+        summary.setUserProfilePicture(post.getUserProfilePicture());
+        summary.setContent(post.getContent());
+        summary.setImages(post.getImages());
+        summary.setImageVariants(post.getImageVariants());
+        summary.setMediaStatus(post.getMediaStatus());
+        summary.setVideoUrl(post.getVideoUrl());
+        summary.setLikesCount(post.getLikesCount());
+        summary.setCommentsCount(post.getCommentsCount());
+        summary.setSharesCount(post.getSharesCount());
+        summary.setDeleted(post.isDeleted());
+        summary.setRecentComments(post.getRecentComments());
+        summary.setCreatedAt(post.getCreatedAt());
+        return summary;
+    }
+}
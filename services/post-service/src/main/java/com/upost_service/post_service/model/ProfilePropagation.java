@@ -0,0 +1,34 @@
+package com.upost_service.post_service.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pending rewrite of a user's denormalized name and avatar, keyed by user id.
+ * The stage and keyset checkpoint are saved after every batch, so a job picked up again after
+ * a crash continues where it stopped. A newer profile change bumps the generation and restarts
+ * the job from the first stage. The document is removed once every stage has run.
+ */
+@Data
+@Document(collection = "profile_propagations")
+public class ProfilePropagation {
+    public static final String STAGE_POSTS = "posts";
+    public static final String STAGE_RECENT_COMMENTS = "recent_comments";
+    public static final String STAGE_COMMENT_BUCKETS = "comment_buckets";
+
+    @Id
+    private String id;  // the user whose profile changed
+    private String username;
+    private String profilePicture;
+    private long generation;
+    private String stage;
+    private String lastId;  // last document rewritten in the current stage
+    private LocalDateTime lastCreatedAt;  // with lastId, the keyset position among the user's posts
+    private long updated;
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+    private LocalDateTime requestedAt;
+}
@@ -0,0 +1,33 @@
+package com.upost_service.post_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed home timeline of a single user.
+ * Entries are kept newest first and capped, so a feed read is one small document.
+ */
+@Data
+@Document(collection = "timelines")
+public class Timeline {
+    @Id
+    private String userId;
+    private List<Entry> entries = new ArrayList<>();
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String postId;
+        private String authorId;
+        private LocalDateTime createdAt;
+    }
+}
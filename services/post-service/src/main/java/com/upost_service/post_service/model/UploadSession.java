@@ -0,0 +1,45 @@
+package com.upost_service.post_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A resumable chunked upload. Chunks are written in place into a preallocated partial file;
+ * receivedRanges records which byte ranges have landed, in arrival order.
+ */
+@Data
+@Document(collection = "upload_sessions")
+public class UploadSession {
+    public static final String ACTIVE = "active";
+    public static final String FINALIZING = "finalizing";
+    public static final String COMPLETE = "complete";
+
+    @Id
+    private String id;
+    private String userId;
+    private String fileName;
+    private long size;
+    private String status = ACTIVE;
+    private List<ByteRange> receivedRanges = new ArrayList<>();
+    private String mediaUrl;  // set once complete
+    private LocalDateTime createdAt;
+    @Indexed(name = "upload_updated_index")
+    private LocalDateTime updatedAt;
+
+    // Half-open range [start, end)
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ByteRange {
+        private long start;
+        private long end;
+    }
+}
@@ -0,0 +1,16 @@
+package com.upost_service.post_service.repository;
+
+import com.upost_service.post_service.model.PostLike;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PostLikeRepository extends MongoRepository<PostLike, String> {
+
+    boolean existsByPostIdAndUserId(String postId, String userId);
+
+    List<PostLike> findByUserIdAndPostIdIn(String userId, Collection<String> postIds);
+
+    long deleteByPostIdAndUserId(String postId, String userId);
+}
@@ -1,20 +1,59 @@
 package com.upost_service.post_service.repository;
 
 import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.model.PostSummary;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PostRepository extends MongoRepository<Post, String> {
 
-    Page<Post> findByUserIdAndIsDeletedFalseOrderByCreatedAtDesc(String userId, Pageable pageable);
+    @Query(value = "{ 'userId': ?0, 'isDeleted': false }", fields = PostSummary.PROJECTION, sort = "{ 'createdAt': -1 }")
+    Page<PostSummary> findByUserIdAndIsDeletedFalseOrderByCreatedAtDesc(String userId, Pageable pageable);
+
+    @Query(value = "{ '_id': ?0 }", fields = PostSummary.PROJECTION)
+    Optional<PostSummary> findSummaryById(String id);
 
-    @Query("{ 'userId': { $in: ?0 }, 'isDeleted': false }")
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = PostSummary.PROJECTION)
+    List<PostSummary> findSummariesByIdIn(Collection<String> ids);
+
+    @Query(value = "{ 'userId': { $in: ?0 }, 'isDeleted': false }", sort = "{ 'createdAt': -1 }")
     Page<Post> findByUserIdInAndIsDeletedFalseOrderByCreatedAtDesc(List<String> userIds, Pageable pageable);
 
     Page<Post> findByIsDeletedFalseOrderByCreatedAtDesc(Pageable pageable);
 
     long countByUserIdAndIsDeletedFalse(String userId);
+
+    // Keyset pagination over (createdAt, _id); pass PageRequest.of(0, limit) so no count query runs
+    @Query(value = "{ 'userId': ?0, 'isDeleted': false }", fields = PostSummary.PROJECTION, sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<PostSummary> findByUserIdAndIsDeletedFalseOrderByCreatedAtDescIdDesc(String userId, Pageable pageable);
+
+    @Query(value = "{ 'userId': ?0, 'isDeleted': false, $or: [ { 'createdAt': { $lt: ?1 } }, { 'createdAt': ?1, '_id': { $lt: ?2 } } ] }",
+            fields = PostSummary.PROJECTION,
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<PostSummary> findUserPostsBefore(String userId, LocalDateTime createdAt, ObjectId id, Pageable pageable);
+
+    // Timeline entries only need the id, author and time of a post
+    @Query(value = "{ 'userId': { $in: ?0 }, 'isDeleted': false }",
+            fields = "{ 'userId': 1, 'createdAt': 1 }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Post> findByUserIdInAndIsDeletedFalseOrderByCreatedAtDescIdDesc(List<String> userIds, Pageable pageable);
+
+    @Query(value = "{ 'userId': { $in: ?0 }, 'isDeleted': false, $or: [ { 'createdAt': { $lt: ?1 } }, { 'createdAt': ?1, '_id': { $lt: ?2 } } ] }",
+            fields = "{ 'userId': 1, 'createdAt': 1 }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Post> findByUserIdInBefore(List<String> userIds, LocalDateTime createdAt, ObjectId id, Pageable pageable);
+
+    // Ranking candidates of one author: only the fields the scorer reads
+    @Query(value = "{ 'userId': ?0, 'isDeleted': false, 'createdAt': { $gte: ?1 } }",
+            fields = "{ 'userId': 1, 'createdAt': 1, 'likesCount': 1, 'commentsCount': 1 }",
+            sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Post> findRankingCandidates(String userId, LocalDateTime since, Pageable pageable);
 }
@@ -0,0 +1,7 @@
+package com.upost_service.post_service.repository;
+
+import com.upost_service.post_service.model.Timeline;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface TimelineRepository extends MongoRepository<Timeline, String> {
+}
@@ -0,0 +1,12 @@
+package com.upost_service.post_service.repository;
+
+import com.upost_service.post_service.model.UploadSession;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UploadSessionRepository extends MongoRepository<UploadSession, String> {
+
+    List<UploadSession> findTop100ByUpdatedAtBefore(LocalDateTime cutoff);
+}
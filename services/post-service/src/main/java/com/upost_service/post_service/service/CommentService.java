@@ -0,0 +1,109 @@
+package com.upost_service.post_service.service;
+
+import com.upost_service.post_service.dto.CommentResponse;
+import com.upost_service.post_service.dto.CursorPage;
+import com.upost_service.post_service.model.CommentBucket;
+import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.util.PageCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bucketed comment storage. Each post's comments live in comment_buckets documents
+ * of at most BUCKET_SIZE entries; the post itself only keeps a count and a short preview.
+ */
+@Service
+@RequiredArgsConstructor
+public class CommentService {
+
+    public static final int BUCKET_SIZE = 100;
+    public static final int RECENT_COMMENTS = 3;
+    private static final int MAX_SLICE_SIZE = 100;
+
+    private static final Comparator<Post.Comment> NEWEST_FIRST = Comparator
+            .comparing(Post.Comment::getCreatedAt)
+            .thenComparing(Post.Comment::getId)
+            .reversed();
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Appends the comment to the post's open bucket and updates the post's
+     * counter and preview in a single atomic update.
+     */
+    public void addComment(String postId, Post.Comment comment) {
+        Query openBucket = Query.query(Criteria.where("postId").is(postId).and("count").lt(BUCKET_SIZE));
+        mongoTemplate.upsert(openBucket, new Update()
+                .push("comments", comment)
+                .inc("count", 1)
+                .min("firstCreatedAt", comment.getCreatedAt())
+                .max("lastCreatedAt", comment.getCreatedAt()), CommentBucket.class);
+
+        Update postUpdate = new Update()
+                .inc("commentsCount", 1)
+                .set("updatedAt", comment.getCreatedAt());
+        postUpdate.push("recentComments").slice(-RECENT_COMMENTS).each(comment);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)), postUpdate, Post.class);
+    }
+
+    /**
+     * Returns comments newest first. Buckets are streamed newest first and reading
+     * stops as soon as no remaining bucket can hold a comment newer than the page.
+     */
+    public CursorPage<CommentResponse> getComments(String postId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        PageCursor before = cursor != null ? PageCursor.decode(cursor) : null;
+
+        Query query = Query.query(Criteria.where("postId").is(postId));
+        if (before != null) {
+            query.addCriteria(Criteria.where("firstCreatedAt").lte(before.getCreatedAt()));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "firstCreatedAt"));
+
+        List<Post.Comment> candidates = new ArrayList<>();
+        try (Stream<CommentBucket> stream = mongoTemplate.stream(query, CommentBucket.class)) {
+            Iterator<CommentBucket> buckets = stream.iterator();
+            while (buckets.hasNext()) {
+                CommentBucket bucket = buckets.next();
+                if (candidates.size() > limit && bucket.getLastCreatedAt().isBefore(candidates.get(limit).getCreatedAt())) {
+                    break;
+                }
+                bucket.getComments().stream()
+                        .filter(comment -> before == null || isBefore(comment, before))
+                        .forEach(candidates::add);
+                candidates.sort(NEWEST_FIRST);
+            }
+        }
+
+        return CursorPage.of(candidates, limit,
+                comment -> PageCursor.encode(comment.getCreatedAt(), comment.getId()),
+                CommentService::toResponse);
+    }
+
+    public static CommentResponse toResponse(Post.Comment comment) {
+        return CommentResponse.builder()
+                .id(comment.getId())
+                .userId(comment.getUserId())
+                .username(comment.getUsername())
+                .userProfilePicture(comment.getUserProfilePicture())
+                .content(comment.getContent())
+                .createdAt(comment.getCreatedAt())
+                .build();
+    }
+
+    private static boolean isBefore(Post.Comment comment, PageCursor cursor) {
+        int byTime = comment.getCreatedAt().compareTo(cursor.getCreatedAt());
+        return byTime < 0 || (byTime == 0 && comment.getId().compareTo(cursor.getId()) < 0);
+    }
+}
@@ -0,0 +1,103 @@
+package com.upost_service.post_service.service;
+
+import com.upost_service.post_service.config.FeedRankingProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Scores feed candidates and keeps the best k in a bounded min-heap,
+ * so merging n candidates costs O(n log k) rather than a full sort.
+ */
+@Component
+public class FeedRanker {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    // Lowest score at the head; ties broken towards older, then smaller id, so results are stable
+    private static final Comparator<Scored> WORST_FIRST = Comparator
+            .comparingDouble(Scored::getScore)
+            .thenComparing(scored -> scored.getCandidate().getCreatedAt())
+            .thenComparing(scored -> scored.getCandidate().getPostId(), Comparator.reverseOrder());
+
+    private final FeedRankingProperties properties;
+
+    public FeedRanker(FeedRankingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Candidate {
+        private String postId;
+        private String authorId;
+        private LocalDateTime createdAt;
+        private int likesCount;
+        private int commentsCount;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Scored {
+        private Candidate candidate;
+        private double score;
+    }
+
+    /**
+     * Returns the k best candidates across all authors, best first.
+     *
+     * @param likesByAuthor how many of each author's posts the viewer has liked
+     */
+    public List<Scored> topK(Collection<? extends Collection<Candidate>> candidatesByAuthor,
+                             Map<String, Long> likesByAuthor, int k, LocalDateTime now) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        Map<String, Double> affinity = new HashMap<>();
+        likesByAuthor.forEach((author, likes) ->
+                affinity.put(author, 1 + properties.getAffinityWeight() * Math.log1p(likes)));
+
+        PriorityQueue<Scored> heap = new PriorityQueue<>(k + 1, WORST_FIRST);
+        for (Collection<Candidate> candidates : candidatesByAuthor) {
+            for (Candidate candidate : candidates) {
+                Scored scored = new Scored(candidate,
+                        score(candidate, affinity.getOrDefault(candidate.getAuthorId(), 1d), now));
+                if (heap.size() < k) {
+                    heap.offer(scored);
+                } else if (WORST_FIRST.compare(scored, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.offer(scored);
+                }
+            }
+        }
+
+        List<Scored> best = new ArrayList<>(heap);
+        best.sort(WORST_FIRST.reversed());
+        return best;
+    }
+
+    /**
+     * Recency decay times engagement velocity times author affinity.
+     * Velocity divides weighted engagement by age, so a fresh post with a few likes
+     * can outrank an old one with many.
+     */
+    public double score(Candidate candidate, double affinity, LocalDateTime now) {
+        double ageHours = Math.max(0, Duration.between(candidate.getCreatedAt(), now).toMillis() / MILLIS_PER_HOUR);
+        double decay = Math.pow(0.5, ageHours / properties.getRecencyHalfLifeHours());
+        double engagement = properties.getLikeWeight() * candidate.getLikesCount()
+                + properties.getCommentWeight() * candidate.getCommentsCount();
+        double velocity = engagement / (ageHours + 2);
+        return decay * (1 + velocity) * affinity;
+    }
+}
@@ -0,0 +1,75 @@
+package com.upost_service.post_service.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.upost_service.post_service.Event.UserEvent;
+import com.upost_service.post_service.client.UserServiceClient;
+import com.upost_service.post_service.dto.CursorPage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ids each feed reader follows, cached per reader so a feed read does not fetch the
+ * whole following list from user-service. Loaded page by page; FOLLOW/UNFOLLOW on
+ * user-events evicts the follower on every replica, and the TTL covers a missed event.
+ */
+@Component
+@Slf4j
+public class FollowingCache {
+
+    public static final String FOLLOW = "FOLLOW";
+    public static final String UNFOLLOW = "UNFOLLOW";
+
+    private final LoadingCache<String, List<String>> cache;
+    private final UserServiceClient userServiceClient;
+    private final int pageSize;
+
+    public FollowingCache(UserServiceClient userServiceClient,
+                          MeterRegistry meterRegistry,
+                          @Value("${feed.following-cache.max-size:100000}") long maxSize,
+                          @Value("${feed.following-cache.ttl-minutes:10}") long ttlMinutes,
+                          @Value("${feed.following-cache.page-size:1000}") int pageSize) {
+        this.userServiceClient = userServiceClient;
+        this.pageSize = pageSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "following");
+    }
+
+    public List<String> get(String userId) {
+        return cache.get(userId);
+    }
+
+    private List<String> load(String userId) {
+        List<String> following = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<String> page = userServiceClient.getUserFollowingPage(userId, cursor, pageSize);
+            following.addAll(page.getItems());
+            cursor = page.isHasNext() ? page.getNextCursor() : null;
+        } while (cursor != null);
+        return List.copyOf(following);
+    }
+
+    // Each replica listens in its own consumer group so every one of them drops its own copy
+    @KafkaListener(topics = "user-events",
+            groupId = "${feed.following-cache.group-id}",
+            properties = {"auto.offset.reset=latest",
+                    "spring.json.value.default.type=com.upost_service.post_service.Event.UserEvent"})
+    public void handleUserEvent(UserEvent event) {
+        if ((FOLLOW.equals(event.getType()) || UNFOLLOW.equals(event.getType())) && event.getUserId() != null) {
+            cache.invalidate(event.getUserId());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.upost_service.post_service.service;
+
+import com.upost_service.post_service.model.Post;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for Post.likesCount.
+ * Like/unlike deltas are absorbed by a striped LongAdder per post, so a viral post no longer
+ * turns every request into an update of the same document; a scheduled flush folds all pending
+ * deltas into one unordered bulk of $inc updates.
+ */
+@Component
+@Slf4j
+public class LikeCounterBuffer {
+
+    private final ConcurrentHashMap<String, PendingCounter> pending = new ConcurrentHashMap<>();
+    private final MongoTemplate mongoTemplate;
+    private final PostCache postCache;
+
+    // Deltas drained from pending but not yet acknowledged by Mongo, still visible to readers
+    private volatile Map<String, Long> inFlight = Map.of();
+
+    private final DistributionSummary flushSize;
+    private final Timer flushLag;
+    private final Counter flushErrors;
+
+    @Value("${post.likes.idle-flushes-before-evict:40}")
+    private int idleFlushesBeforeEvict;
+
+    public LikeCounterBuffer(MongoTemplate mongoTemplate, PostCache postCache, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.postCache = postCache;
+        this.flushSize = DistributionSummary.builder("post.likes.flush.size")
+                .description("Posts written per like counter flush")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("post.likes.flush.lag")
+                .description("Age of the oldest buffered like delta when it reached Mongo")
+                .register(meterRegistry);
+        this.flushErrors = Counter.builder("post.likes.flush.errors")
+                .description("Like counter flushes with updates that failed and were re-queued")
+                .register(meterRegistry);
+        meterRegistry.gauge("post.likes.pending.posts", pending, Map::size);
+    }
+
+    public void add(String postId, long delta) {
+        PendingCounter counter = pending.computeIfAbsent(postId, id -> new PendingCounter());
+        counter.touch();
+        counter.delta.add(delta);
+
+        // The flusher evicted this counter while we held it; whatever it didn't drain moves to a live one
+        if (counter.retired) {
+            long stranded = counter.delta.sumThenReset();
+            if (stranded != 0) {
+                add(postId, stranded);
+            }
+        }
+    }
+
+    /**
+     * Persisted count plus every delta that has not been acknowledged by Mongo yet.
+     */
+    public int likesCount(String postId, int persisted) {
+        long count = persisted + inFlight.getOrDefault(postId, 0L);
+        PendingCounter counter = pending.get(postId);
+        if (counter != null) {
+            count += counter.delta.sum();
+        }
+        return (int) Math.max(0, count);
+    }
+
+    @Scheduled(fixedDelayString = "${post.likes.flush-interval-ms:250}")
+    public synchronized void flush() {
+        Map<String, Long> batch = new HashMap<>();
+        long oldestDelta = Long.MAX_VALUE;
+
+        for (Map.Entry<String, PendingCounter> entry : pending.entrySet()) {
+            PendingCounter counter = entry.getValue();
+            long dirtySince = counter.dirtySince;
+            counter.dirtySince = 0;
+
+            long delta = counter.delta.sumThenReset();
+            if (delta == 0 && ++counter.idleFlushes >= idleFlushesBeforeEvict) {
+                // Retire first, then drain once more: an add racing with eviction is either
+                // caught here or sees the retired flag and re-routes itself
+                counter.retired = true;
+                pending.remove(entry.getKey(), counter);
+                delta = counter.delta.sumThenReset();
+            }
+            if (delta != 0) {
+                counter.idleFlushes = 0;
+                batch.merge(entry.getKey(), delta, Long::sum);
+                if (dirtySince != 0) {
+                    oldestDelta = Math.min(oldestDelta, dirtySince);
+                }
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        inFlight = batch;
+        try {
+            List<String> postIds = new ArrayList<>(batch.keySet());
+            Set<String> failed = write(postIds, batch);
+            Set<String> applied = new HashSet<>(postIds);
+            applied.removeAll(failed);
+
+            // Evict before the in-flight deltas stop being counted, so readers never see the old count.
+            // Outside the retry path: a failed eviction must not put already-applied deltas back
+            try {
+                postCache.invalidate(applied);
+            } catch (Exception e) {
+                log.warn("Could not invalidate {} cached posts after like flush: {}", applied.size(), e.getMessage());
+            }
+
+            if (!failed.isEmpty()) {
+                // Put the unapplied deltas back so the next flush retries them
+                flushErrors.increment();
+                failed.forEach(postId -> add(postId, batch.get(postId)));
+            }
+            flushSize.record(applied.size());
+            if (oldestDelta != Long.MAX_VALUE) {
+                flushLag.record(System.nanoTime() - oldestDelta, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            inFlight = Map.of();
+        }
+    }
+
+    /**
+     * Runs one $inc per post and returns the posts whose update was not applied. An unordered
+     * bulk keeps going past a failed op, so only the ops Mongo reports as errors are retried.
+     */
+    private Set<String> write(List<String> postIds, Map<String, Long> batch) {
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+            postIds.forEach(postId ->
+                    bulk.updateOne(Query.query(Criteria.where("_id").is(postId)), new Update().inc("likesCount", batch.get(postId))));
+            bulk.execute();
+            return Set.of();
+        } catch (BulkOperationException e) {
+            log.error("Like counter flush: {} of {} updates failed: {}", e.getErrors().size(), postIds.size(), e.getMessage());
+            Set<String> failed = new HashSet<>();
+            e.getErrors().forEach(error -> failed.add(postIds.get(error.getIndex())));
+            return failed;
+        } catch (Exception e) {
+            // No per-op outcome (e.g. the connection failed before a reply), so the whole batch is retried
+            log.error("Like counter flush of {} posts failed: {}", postIds.size(), e.getMessage());
+            return new HashSet<>(postIds);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (!pending.isEmpty() && pending.values().stream().anyMatch(c -> c.delta.sum() != 0)) {
+            log.warn("Like counters still pending after shutdown flush");
+        }
+    }
+
+    private static final class PendingCounter {
+        final LongAdder delta = new LongAdder();
+        volatile boolean retired;
+        volatile long dirtySince;
+        int idleFlushes;  // only touched by the flushing thread
+
+        void touch() {
+            if (dirtySince == 0) {
+                dirtySince = System.nanoTime();
+            }
+        }
+    }
+}
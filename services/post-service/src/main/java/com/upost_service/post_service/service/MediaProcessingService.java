@@ -0,0 +1,231 @@
+package com.upost_service.post_service.service;
+
+import com.upost_service.post_service.controller.FileStorageService;
+import com.upost_service.post_service.model.Post;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Turns uploaded originals into feed-sized renditions off the request thread.
+ * Variants and JPEG originals are re-encoded from decoded pixels, which drops
+ * EXIF and any other embedded metadata.
+ */
+@Service
+@Slf4j
+public class MediaProcessingService {
+
+    private final FileStorageService fileStorageService;
+    private final MongoTemplate mongoTemplate;
+    private final PostCache postCache;
+    private final PostEventPublisher postEventPublisher;
+    private final Timer processingLatency;
+
+    @Value("${media.processing.thumbnail-size:320}")
+    private int thumbnailSize;
+
+    @Value("${media.processing.medium-size:1080}")
+    private int mediumSize;
+
+    @Value("${media.processing.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    public MediaProcessingService(FileStorageService fileStorageService,
+                                  MongoTemplate mongoTemplate,
+                                  PostCache postCache,
+                                  PostEventPublisher postEventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Qualifier("mediaProcessingExecutor") ThreadPoolTaskExecutor mediaProcessingExecutor) {
+        this.fileStorageService = fileStorageService;
+        this.mongoTemplate = mongoTemplate;
+        this.postCache = postCache;
+        this.postEventPublisher = postEventPublisher;
+        this.processingLatency = Timer.builder("post.media.processing.latency")
+                .description("Time from upload to all image variants being available")
+                .register(meterRegistry);
+        meterRegistry.gauge("post.media.queue.depth", mediaProcessingExecutor,
+                executor -> executor.getThreadPoolExecutor().getQueue().size());
+        meterRegistry.gauge("post.media.active", mediaProcessingExecutor, ThreadPoolTaskExecutor::getActiveCount);
+    }
+
+    @Async("mediaProcessingExecutor")
+    public void processImages(String postId, List<String> originalUrls, long submittedAtNanos) {
+        List<Post.ImageVariant> variants = new ArrayList<>();
+        String status = Post.MEDIA_READY;
+
+        for (String url : originalUrls) {
+            try {
+                variants.add(processImage(url));
+            } catch (Exception e) {
+                log.error("Image processing failed for post {} ({}): {}", postId, url, e.getMessage());
+                Post.ImageVariant fallback = new Post.ImageVariant();
+                fallback.setOriginal(url);
+                variants.add(fallback);
+                status = Post.MEDIA_FAILED;
+            }
+        }
+
+        List<String> images = variants.stream().map(Post.ImageVariant::getOriginal).collect(Collectors.toList());
+        Post updated = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(postId)),
+                new Update().set("images", images).set("imageVariants", variants).set("mediaStatus", status),
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+        postCache.invalidate(postId);
+        if (updated == null) {
+            // Purged meanwhile: the purge already released the originals, and nothing points at
+            // the files written here, so those are the references to drop
+            for (int i = 0; i < originalUrls.size(); i++) {
+                Post.ImageVariant variant = variants.get(i);
+                if (!originalUrls.get(i).equals(variant.getOriginal())) {
+                    fileStorageService.release(variant.getOriginal());
+                }
+                fileStorageService.release(variant.getMedium());
+                fileStorageService.release(variant.getThumbnail());
+            }
+            processingLatency.record(System.nanoTime() - submittedAtNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        postEventPublisher.publishUpdated(updated);
+
+        // Originals that were replaced by a metadata-free copy lose this post's reference
+        for (int i = 0; i < originalUrls.size(); i++) {
+            if (!originalUrls.get(i).equals(images.get(i))) {
+                fileStorageService.release(originalUrls.get(i));
+            }
+        }
+        processingLatency.record(System.nanoTime() - submittedAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Post.ImageVariant processImage(String url) throws IOException {
+        Path original = fileStorageService.resolve(url)
+                .orElseThrow(() -> new IOException("Not a stored file"));
+        String originalFormat;
+        BufferedImage image;
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);  // ignoreMetadata: EXIF is never even parsed
+                originalFormat = reader.getFormatName().toLowerCase();
+                image = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        boolean hasAlpha = image.getColorModel().hasAlpha();
+        String format = hasAlpha ? "png" : "jpg";
+
+        // EXIF (GPS, camera serials) travels in JPEG originals; store a copy re-encoded from pixels only
+        String strippedUrl = url;
+        if (originalFormat.equals("jpeg") || originalFormat.equals("jpg")) {
+            strippedUrl = store(image, "jpg");
+        }
+
+        String mediumUrl = store(scaleDown(image, mediumSize), format);
+        String thumbnailUrl = store(scaleDown(image, thumbnailSize), format);
+
+        Post.ImageVariant variant = new Post.ImageVariant();
+        variant.setOriginal(strippedUrl);
+        variant.setMedium(mediumUrl);
+        variant.setThumbnail(thumbnailUrl);
+        variant.setWidth(image.getWidth());
+        variant.setHeight(image.getHeight());
+        return variant;
+    }
+
+    // Fits the image inside a maxSize square, never upscaling
+    private BufferedImage scaleDown(BufferedImage source, int maxSize) {
+        int longest = Math.max(source.getWidth(), source.getHeight());
+        if (longest <= maxSize) {
+            return source;
+        }
+        double scale = (double) maxSize / longest;
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    // Encodes to a temp file, then hands it to the content-addressed store
+    private String store(BufferedImage image, String format) throws IOException {
+        Path tmp = Files.createTempFile("rendition-", "." + format);
+        try {
+            write(image, tmp, format);
+            try (InputStream in = Files.newInputStream(tmp)) {
+                return fileStorageService.saveImage(in, format);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void write(BufferedImage image, Path target, String format) throws IOException {
+        if ("png".equals(format)) {
+            ImageIO.write(image, "png", target.toFile());
+            return;
+        }
+
+        // JPEG has no alpha channel; flatten anything that isn't plain RGB first
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB && image.getType() != BufferedImage.TYPE_3BYTE_BGR) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
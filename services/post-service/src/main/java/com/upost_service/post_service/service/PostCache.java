@@ -0,0 +1,100 @@
+package com.upost_service.post_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.upost_service.post_service.Event.PostEvent;
+import com.upost_service.post_service.model.PostSummary;
+import com.upost_service.post_service.repository.PostRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of post summaries, shared by every viewer.
+ * Only user-independent data is cached; isLiked is resolved per request. Writes evict
+ * locally and broadcast POST_INVALIDATED on post-cache-invalidations so the other replicas
+ * evict too; post-events stays reserved for domain events.
+ */
+@Component
+@Slf4j
+public class PostCache {
+
+    public static final String POST_INVALIDATED = "POST_INVALIDATED";
+    private static final String TOPIC_POST_CACHE_INVALIDATIONS = "post-cache-invalidations";
+
+    private final Cache<String, PostSummary> cache;
+    private final PostRepository postRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public PostCache(PostRepository postRepository,
+                     KafkaTemplate<String, Object> kafkaTemplate,
+                     MeterRegistry meterRegistry,
+                     @Value("${post.cache.max-size:50000}") long maxSize,
+                     @Value("${post.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.postRepository = postRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "posts");
+    }
+
+    public Optional<PostSummary> get(String postId) {
+        // Loaded inside the cache, so an invalidation that lands during the load discards the result
+        return Optional.ofNullable(cache.get(postId, id -> postRepository.findSummaryById(id).orElse(null)));
+    }
+
+    /**
+     * Returns the cached or loaded posts keyed by id; misses are fetched in one $in query.
+     */
+    public Map<String, PostSummary> getAll(Collection<String> postIds) {
+        return cache.getAll(postIds, missing -> {
+            List<String> ids = new ArrayList<>();
+            missing.forEach(ids::add);
+            return postRepository.findSummariesByIdIn(ids).stream()
+                    .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+        });
+    }
+
+    public void invalidate(String postId) {
+        invalidate(List.of(postId));
+    }
+
+    public void invalidate(Collection<String> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        cache.invalidateAll(postIds);
+
+        PostEvent event = new PostEvent();
+        event.setType(POST_INVALIDATED);
+        event.setPostIds(new ArrayList<>(postIds));
+        kafkaTemplate.send(TOPIC_POST_CACHE_INVALIDATIONS, event);
+    }
+
+    // Each replica listens in its own consumer group so every one of them sees every invalidation
+    @KafkaListener(topics = TOPIC_POST_CACHE_INVALIDATIONS,
+            groupId = "${post.cache.invalidation-group-id}",
+            properties = "auto.offset.reset=latest")
+    public void handleInvalidation(PostEvent event) {
+        if (POST_INVALIDATED.equals(event.getType()) && event.getPostIds() != null) {
+            log.debug("Evicting {} posts on invalidation broadcast", event.getPostIds().size());
+            cache.invalidateAll(event.getPostIds());
+        }
+    }
+}
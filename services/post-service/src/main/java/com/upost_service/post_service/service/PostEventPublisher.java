@@ -0,0 +1,152 @@
+package com.upost_service.post_service.service;
+
+import com.upost_service.post_service.Event.PostEvent;
+import com.upost_service.post_service.Event.PostSnapshot;
+import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.util.ContentTags;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes post lifecycle events to post-events, keyed by the post author so that all
+ * events of one author land on one partition in order.
+ */
+@Component
+@Slf4j
+public class PostEventPublisher {
+
+    public static final String TOPIC_POST_EVENTS = "post-events";
+    public static final String POST_CREATED = "POST_CREATED";
+    public static final String POST_UPDATED = "POST_UPDATED";
+    public static final String POST_DELETED = "POST_DELETED";
+    public static final String POST_PURGED = "POST_PURGED";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${post.events.replay-batch-size:500}")
+    private int replayBatchSize;
+
+    public PostEventPublisher(KafkaTemplate<String, Object> kafkaTemplate, MongoTemplate mongoTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void publishCreated(Post post) {
+        send(lifecycleEvent(POST_CREATED, post, false));
+    }
+
+    public void publishUpdated(Post post) {
+        send(lifecycleEvent(POST_UPDATED, post, false));
+    }
+
+    public void publishDeleted(Post post) {
+        send(lifecycleEvent(POST_DELETED, post, false));
+    }
+
+    // The post and everything hanging off it is gone for good; consumers can drop their tombstones
+    public void publishPurged(Post post) {
+        send(lifecycleEvent(POST_PURGED, post, false));
+    }
+
+    /**
+     * Sends an event about a post (like, comment, ...) on its author's partition.
+     */
+    public void send(PostEvent event) {
+        kafkaTemplate.send(TOPIC_POST_EVENTS, event.getPostOwnerId(), event);
+    }
+
+    /**
+     * Republishes live posts as POST_CREATED with replay set, in _id order after afterId,
+     * at most limit posts per call. Pass the returned lastId back in to continue.
+     */
+    public Map<String, Object> replay(String afterId, int limit) {
+        if (afterId != null && !ObjectId.isValid(afterId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "afterId must be a post id");
+        }
+
+        ObjectId cursor = afterId != null ? new ObjectId(afterId) : null;
+        int published = 0;
+        boolean exhausted = false;
+
+        while (published < limit) {
+            Criteria live = Criteria.where("isDeleted").is(false);
+            if (cursor != null) {
+                live = live.and("_id").gt(cursor);
+            }
+            Query batch = Query.query(live)
+                    .with(Sort.by(Sort.Direction.ASC, "_id"))
+                    .limit(Math.min(replayBatchSize, limit - published));
+            List<Post> posts = mongoTemplate.find(batch, Post.class);
+
+            for (Post post : posts) {
+                send(lifecycleEvent(POST_CREATED, post, true));
+            }
+            // One batch in the producer at a time, so a large backfill can't outrun the broker
+            kafkaTemplate.flush();
+
+            published += posts.size();
+            if (posts.size() < batch.getLimit()) {
+                exhausted = true;
+                break;
+            }
+            cursor = new ObjectId(posts.get(posts.size() - 1).getId());
+        }
+
+        log.info("Replayed {} posts to {}", published, TOPIC_POST_EVENTS);
+        Map<String, Object> result = new HashMap<>();
+        result.put("published", published);
+        result.put("lastId", exhausted || cursor == null ? null : cursor.toHexString());
+        return result;
+    }
+
+    private static PostEvent lifecycleEvent(String type, Post post, boolean replay) {
+        PostEvent event = new PostEvent();
+        event.setType(type);
+        event.setPostId(post.getId());
+        event.setPostOwnerId(post.getUserId());
+        event.setUserId(post.getUserId());
+        event.setUsername(post.getUsername());
+        event.setPost(snapshot(post));
+        event.setReplay(replay);
+        return event;
+    }
+
+    private static PostSnapshot snapshot(Post post) {
+        List<String> images = new ArrayList<>(post.getImages());
+        if (!post.getImageVariants().isEmpty()) {
+            images.clear();
+            post.getImageVariants().forEach(variant ->
+                    images.add(variant.getMedium() != null ? variant.getMedium() : variant.getOriginal()));
+        }
+
+        return PostSnapshot.builder()
+                .id(post.getId())
+                .userId(post.getUserId())
+                .username(post.getUsername())
+                .content(post.getContent())
+                .hashtags(new ArrayList<>(ContentTags.hashtags(post.getContent())))
+                .mentions(new ArrayList<>(ContentTags.mentions(post.getContent())))
+                .images(images)
+                .videoUrl(post.getVideoUrl())
+                .mediaStatus(post.getMediaStatus())
+                .deleted(post.isDeleted())
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.upost_service.post_service.service;
+
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.upost_service.post_service.controller.FileStorageService;
+import com.upost_service.post_service.model.CommentBucket;
+import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.model.PostLike;
+import com.upost_service.post_service.util.BatchThrottle;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hard-deletes posts that have been soft-deleted for longer than the grace period, together
+ * with their likes, comment buckets and media references. Works through the deleted_purge_index
+ * in bounded batches and backs off whenever Mongo gets slower than the target latency, so a
+ * large backlog drains without competing with live traffic.
+ */
+@Service
+@Slf4j
+public class PostPurgeService {
+
+    private final MongoTemplate mongoTemplate;
+    private final FileStorageService fileStorageService;
+    private final PostCache postCache;
+    private final PostEventPublisher postEventPublisher;
+    private final Counter purged;
+    private final Timer batchLatency;
+
+    @Value("${post.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${post.purge.grace-hours:72}")
+    private long graceHours;
+
+    @Value("${post.purge.batch-size:100}")
+    private int batchSize;
+
+    @Value("${post.purge.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${post.purge.target-latency-ms:20}")
+    private long targetLatencyMs;
+
+    @Value("${post.purge.max-pause-ms:5000}")
+    private long maxPauseMs;
+
+    public PostPurgeService(MongoTemplate mongoTemplate,
+                            FileStorageService fileStorageService,
+                            PostCache postCache,
+                            PostEventPublisher postEventPublisher,
+                            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.fileStorageService = fileStorageService;
+        this.postCache = postCache;
+        this.postEventPublisher = postEventPublisher;
+        this.purged = Counter.builder("post.purge.purged")
+                .description("Soft-deleted posts removed for good")
+                .register(meterRegistry);
+        this.batchLatency = Timer.builder("post.purge.batch.latency")
+                .description("Time to purge one batch of posts")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${post.purge.interval-ms:600000}",
+            initialDelayString = "${post.purge.initial-delay-ms:60000}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+
+        Date cutoff = Date.from(LocalDateTime.now().minusHours(graceHours).atZone(ZoneId.systemDefault()).toInstant());
+        long total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            long started = System.nanoTime();
+            List<Object> ids = nextBatch(cutoff);
+            if (ids.isEmpty()) {
+                break;
+            }
+            total += purge(ids);
+            long elapsed = System.nanoTime() - started;
+            batchLatency.record(elapsed, TimeUnit.NANOSECONDS);
+
+            if (ids.size() < batchSize || !BatchThrottle.pauseIfSlow("Purge",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), ids.size(), targetLatencyMs, maxPauseMs)) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Purged {} soft-deleted posts older than {}h", total, graceHours);
+        }
+    }
+
+    // Ids only, oldest deletion first; a fresh cursor per batch so pauses never outlive it on the server
+    private List<Object> nextBatch(Date cutoff) {
+        List<Object> ids = new ArrayList<>(batchSize);
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Post.class))
+                .find(Filters.and(Filters.eq("isDeleted", true), Filters.lt("deletedAt", cutoff)))
+                .projection(Projections.include("_id"))
+                .sort(Sorts.ascending("deletedAt"))
+                .limit(batchSize)
+                .batchSize(batchSize)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                ids.add(cursor.next().get("_id"));
+            }
+        }
+        return ids;
+    }
+
+    private int purge(List<Object> ids) {
+        // Children first: removing them again is harmless, while a post removed first would
+        // leave them unreachable if the run stopped in between. Deleted posts are never restored
+        Query byPost = Query.query(Criteria.where("postId").in(ids.stream().map(Object::toString).toList()));
+        mongoTemplate.remove(byPost, PostLike.class);
+        mongoTemplate.remove(byPost, CommentBucket.class);
+
+        List<String> postIds = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            // Removing the post is the claim: of two replicas racing here only one gets it back
+            Post post = mongoTemplate.findAndRemove(
+                    Query.query(Criteria.where("_id").is(id).and("isDeleted").is(true)), Post.class);
+            if (post == null) {
+                continue;
+            }
+            releaseMedia(post);
+            postEventPublisher.publishPurged(post);
+            postIds.add(post.getId());
+        }
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+
+        postCache.invalidate(postIds);
+        purged.increment(postIds.size());
+        return postIds.size();
+    }
+
+    // Every stored URL on the post holds one reference to its blob
+    private void releaseMedia(Post post) {
+        if (!post.getImageVariants().isEmpty()) {
+            for (Post.ImageVariant variant : post.getImageVariants()) {
+                fileStorageService.release(variant.getOriginal());
+                fileStorageService.release(variant.getMedium());
+                fileStorageService.release(variant.getThumbnail());
+            }
+        } else {
+            post.getImages().forEach(fileStorageService::release);
+        }
+        fileStorageService.release(post.getVideoUrl());
+    }
+}
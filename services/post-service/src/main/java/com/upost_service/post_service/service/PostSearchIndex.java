@@ -0,0 +1,487 @@
+package com.upost_service.post_service.service;
+
+import com.upost_service.post_service.Event.PostEvent;
+import com.upost_service.post_service.Event.PostSnapshot;
+import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.util.ContentTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index over post content, kept on local disk.
+ * Local post writes and post-events from other replicas update it incrementally;
+ * rebuild() re-reads every live post from Mongo.
+ * The consumer group is tied to the index directory through an id stored in it, so a
+ * restarted replica resumes post-events where its index left off. An index whose last
+ * commit is older than max-offline-hours is rebuilt instead, since its offsets may be gone.
+ * Scoring is Lucene's default BM25. Hashtags and mentions are indexed as exact terms
+ * so they can be used as filters.
+ */
+@Component
+@Slf4j
+public class PostSearchIndex {
+
+    private static final String ID = "id";
+    private static final String USER_ID = "userId";
+    private static final String CONTENT = "content";
+    private static final String HASHTAG = "hashtag";
+    private static final String MENTION = "mention";
+    private static final String CREATED_AT = "createdAt";
+    private static final String INSTANCE_ID_FILE = "instance-id";
+    private static final String COMMITTED_AT = "committedAt";
+
+    private static final Sort BY_RELEVANCE = new Sort(SortField.FIELD_SCORE,
+            new SortField(CREATED_AT, SortField.Type.LONG, true), new SortField(ID, SortField.Type.STRING));
+    private static final Sort BY_RECENCY = new Sort(
+            new SortField(CREATED_AT, SortField.Type.LONG, true), new SortField(ID, SortField.Type.STRING));
+
+    private final MongoTemplate mongoTemplate;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Timer userQueryLatency;
+    private final Timer adminQueryLatency;
+    private final String consumerGroupId;
+
+    // While a rebuild runs the writer holds a half-filled index, which must not become visible
+    private volatile boolean rebuilding;
+
+    @Value("${search.index.rebuild-if-empty:true}")
+    private boolean rebuildIfEmpty;
+
+    // Kept under Kafka's committed-offset retention (7 days by default)
+    @Value("${search.index.max-offline-hours:24}")
+    private long maxOfflineHours;
+
+    public PostSearchIndex(MongoTemplate mongoTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${search.index.path:search-index}") String indexPath,
+                           @Value("${search.index.group-id-prefix:post-service-search}") String groupIdPrefix) {
+        this.mongoTemplate = mongoTemplate;
+        try {
+            this.consumerGroupId = groupIdPrefix + "-" + instanceId(Path.of(indexPath));
+            this.directory = FSDirectory.open(Path.of(indexPath));
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open search index at " + indexPath, e);
+        }
+
+        this.userQueryLatency = Timer.builder("post.search.query.latency")
+                .tag("scope", "user")
+                .description("Search index query time")
+                .register(meterRegistry);
+        this.adminQueryLatency = Timer.builder("post.search.query.latency")
+                .tag("scope", "admin")
+                .description("Search index query time")
+                .register(meterRegistry);
+        meterRegistry.gauge("post.search.index.documents", writer, w -> w.getDocStats().numDocs);
+        meterRegistry.gauge("post.search.index.size.bytes", this, PostSearchIndex::sizeOnDisk);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Hits {
+        private List<String> postIds;
+        private String nextCursor;
+        private boolean hasNext;
+    }
+
+    /**
+     * Adds or replaces the post; deleted posts are removed instead.
+     */
+    public void index(Post post) {
+        try {
+            if (post.isDeleted()) {
+                writer.deleteDocuments(new Term(ID, post.getId()));
+            } else {
+                writer.updateDocument(new Term(ID, post.getId()),
+                        toDocument(post.getId(), post.getUserId(), post.getContent(), post.getCreatedAt()));
+            }
+        } catch (IOException e) {
+            // The index only lags here; rebuild() brings it back in line with Mongo
+            log.error("Could not index post {}: {}", post.getId(), e.getMessage());
+        }
+    }
+
+    // Writes made on other replicas (and replays) reach this replica's index through post-events.
+    // A new group only comes with a new, empty index, which is rebuilt from Mongo
+    @KafkaListener(topics = PostEventPublisher.TOPIC_POST_EVENTS,
+            groupId = "#{__listener.consumerGroupId}",
+            properties = "auto.offset.reset=latest")
+    public void handlePostEvent(PostEvent event) {
+        PostSnapshot post = event.getPost();
+        if (post == null) {
+            return;
+        }
+        try {
+            switch (event.getType()) {
+                case PostEventPublisher.POST_CREATED, PostEventPublisher.POST_UPDATED ->
+                        writer.updateDocument(new Term(ID, post.getId()),
+                                toDocument(post.getId(), post.getUserId(), post.getContent(), post.getCreatedAt()));
+                case PostEventPublisher.POST_DELETED, PostEventPublisher.POST_PURGED -> writer.deleteDocuments(new Term(ID, post.getId()));
+                default -> {
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not apply {} for post {} to the search index: {}", event.getType(), post.getId(), e.getMessage());
+        }
+    }
+
+    public void delete(String postId) {
+        try {
+            writer.deleteDocuments(new Term(ID, postId));
+        } catch (IOException e) {
+            log.error("Could not remove post {} from the search index: {}", postId, e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the whole index with the live posts in Mongo. Searches keep seeing
+     * the previous index until the new one is committed.
+     */
+    public synchronized long rebuild() {
+        rebuilding = true;
+        long indexed = 0;
+        try {
+            writer.deleteAll();
+            org.springframework.data.mongodb.core.query.Query live = org.springframework.data.mongodb.core.query.Query
+                    .query(Criteria.where("isDeleted").is(false));
+            live.fields().include("userId", "content", "createdAt");
+            try (Stream<Post> posts = mongoTemplate.stream(live, Post.class)) {
+                for (Post post : (Iterable<Post>) posts::iterator) {
+                    // Not addDocument: index() and the listener may write the same post while the rebuild runs
+                    writer.updateDocument(new Term(ID, post.getId()),
+                            toDocument(post.getId(), post.getUserId(), post.getContent(), post.getCreatedAt()));
+                    indexed++;
+                }
+            }
+            commitWriter();
+        } catch (IOException e) {
+            throw new RuntimeException("Search index rebuild failed", e);
+        } finally {
+            rebuilding = false;
+        }
+        refresh();
+        log.info("Rebuilt search index with {} posts", indexed);
+        return indexed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmptyOrStale() {
+        if (rebuildIfEmpty && writer.getDocStats().numDocs == 0) {
+            rebuild();
+            return;
+        }
+        long committedAt = lastCommittedAt();
+        if (System.currentTimeMillis() - committedAt > TimeUnit.HOURS.toMillis(maxOfflineHours)) {
+            log.info("Search index last committed at {}, too long ago to catch up from post-events", Instant.ofEpochMilli(committedAt));
+            rebuild();
+        }
+    }
+
+    public String getConsumerGroupId() {
+        return consumerGroupId;
+    }
+
+    /**
+     * Relevance-ranked search with keyset pagination. Without text, matching posts come newest first.
+     * Scores may shift slightly between pages as the index changes; the cursor keeps pages disjoint.
+     */
+    public Hits search(String text, String userId, String hashtag, String mention, String cursor, int size) {
+        return userQueryLatency.record(() -> {
+            Query query = buildQuery(text, userId, hashtag, mention);
+            if (query == null) {
+                return new Hits(List.of(), null, false);
+            }
+            boolean relevance = hasText(text);
+            Sort sort = relevance ? BY_RELEVANCE : BY_RECENCY;
+
+            IndexSearcher searcher = acquire();
+            try {
+                FieldDoc after = cursor != null ? decodeCursor(cursor, relevance, searcher.getIndexReader().maxDoc()) : null;
+                TopFieldDocs top = (TopFieldDocs) searcher.searchAfter(after, query, size + 1, sort, relevance);
+
+                List<FieldDoc> docs = Arrays.stream(top.scoreDocs).map(FieldDoc.class::cast).collect(Collectors.toList());
+                boolean hasNext = docs.size() > size;
+                List<FieldDoc> page = hasNext ? docs.subList(0, size) : docs;
+                String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1)) : null;
+                return new Hits(page.stream().map(PostSearchIndex::postId).collect(Collectors.toList()), nextCursor, hasNext);
+            } catch (IOException e) {
+                throw new RuntimeException("Search failed", e);
+            } finally {
+                release(searcher);
+            }
+        });
+    }
+
+    /**
+     * Offset-paginated search for moderation tools, with an exact total.
+     */
+    public Page<String> adminSearch(String text, String userId, Pageable pageable) {
+        return adminQueryLatency.record(() -> {
+            Query query = buildQuery(text, userId, null, null);
+            if (query == null) {
+                return Page.empty(pageable);
+            }
+            boolean relevance = hasText(text);
+
+            IndexSearcher searcher = acquire();
+            try {
+                int wanted = (int) pageable.getOffset() + pageable.getPageSize();
+                TopFieldDocs top = searcher.search(query, wanted, relevance ? BY_RELEVANCE : BY_RECENCY, relevance);
+                List<String> ids = Arrays.stream(top.scoreDocs)
+                        .skip(pageable.getOffset())
+                        .map(doc -> postId((FieldDoc) doc))
+                        .collect(Collectors.toList());
+                return new PageImpl<>(ids, pageable, searcher.count(query));
+            } catch (IOException e) {
+                throw new RuntimeException("Search failed", e);
+            } finally {
+                release(searcher);
+            }
+        });
+    }
+
+    // Makes recent writes searchable; a near-real-time reopen, no commit needed
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (rebuilding) {
+            return;
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Search index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    // Durability point; anything uncommitted at a crash is recovered by rebuild()
+    @Scheduled(fixedDelayString = "${search.index.commit-interval-ms:30000}")
+    public void commit() {
+        if (rebuilding || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            commitWriter();
+        } catch (IOException e) {
+            log.warn("Search index commit failed: {}", e.getMessage());
+        }
+    }
+
+    private void commitWriter() throws IOException {
+        writer.setLiveCommitData(Map.of(COMMITTED_AT, String.valueOf(System.currentTimeMillis())).entrySet());
+        writer.commit();
+    }
+
+    // 0 when there is no commit, or it predates the committedAt field
+    private long lastCommittedAt() {
+        try {
+            String committedAt = SegmentInfos.readLatestCommit(directory).getUserData().get(COMMITTED_AT);
+            return committedAt != null ? Long.parseLong(committedAt) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    // Created with the index directory and kept with it, so a wiped index also gets a new group
+    private static String instanceId(Path indexDir) throws IOException {
+        Path file = indexDir.resolve(INSTANCE_ID_FILE);
+        if (Files.exists(file)) {
+            return Files.readString(file).trim();
+        }
+        Files.createDirectories(indexDir);
+        String id = UUID.randomUUID().toString();
+        Files.writeString(file, id);
+        return id;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private Document toDocument(String postId, String userId, String content, LocalDateTime createdAt) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, postId, Field.Store.NO));
+        doc.add(new SortedDocValuesField(ID, new BytesRef(postId)));
+        doc.add(new StringField(USER_ID, userId, Field.Store.NO));
+        if (content != null) {
+            doc.add(new TextField(CONTENT, content, Field.Store.NO));
+        }
+        for (String tag : ContentTags.hashtags(content)) {
+            doc.add(new StringField(HASHTAG, tag, Field.Store.NO));
+        }
+        for (String mention : ContentTags.mentions(content)) {
+            doc.add(new StringField(MENTION, mention, Field.Store.NO));
+        }
+        long created = createdAt != null ? createdAt.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+        doc.add(new NumericDocValuesField(CREATED_AT, created));
+        return doc;
+    }
+
+    // null when the text analyzes to nothing, i.e. nothing can match
+    private Query buildQuery(String text, String userId, String hashtag, String mention) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        if (hasText(text)) {
+            Query content = new QueryBuilder(analyzer).createBooleanQuery(CONTENT, text);
+            if (content == null) {
+                return null;
+            }
+            query.add(content, BooleanClause.Occur.MUST);
+        } else {
+            query.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+
+        // Filters narrow the result without touching the BM25 score
+        if (userId != null && !userId.isBlank()) {
+            query.add(new TermQuery(new Term(USER_ID, userId)), BooleanClause.Occur.FILTER);
+        }
+        if (hashtag != null && !hashtag.isBlank()) {
+            query.add(new TermQuery(new Term(HASHTAG, ContentTags.normalize(hashtag))), BooleanClause.Occur.FILTER);
+        }
+        if (mention != null && !mention.isBlank()) {
+            query.add(new TermQuery(new Term(MENTION, ContentTags.normalize(mention))), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    private static boolean hasText(String text) {
+        return text != null && !text.isBlank();
+    }
+
+    // The id is the last sort value of every hit, so no stored fields need to be read
+    private static String postId(FieldDoc doc) {
+        return ((BytesRef) doc.fields[doc.fields.length - 1]).utf8ToString();
+    }
+
+    private static String encodeCursor(FieldDoc last) {
+        List<String> parts = new ArrayList<>();
+        for (Object value : last.fields) {
+            parts.add(value instanceof BytesRef ref ? ref.utf8ToString() : String.valueOf(value));
+        }
+        String raw = String.join("|", parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FieldDoc decodeCursor(String cursor, boolean relevance, int maxDoc) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", relevance ? 3 : 2);
+            if (parts.length != (relevance ? 3 : 2)) {
+                throw new IllegalArgumentException("Wrong number of cursor fields");
+            }
+            int i = 0;
+            Object[] fields = new Object[parts.length];
+            if (relevance) {
+                fields[i] = Float.parseFloat(parts[i]);
+                i++;
+            }
+            fields[i] = Long.parseLong(parts[i]);
+            fields[i + 1] = new BytesRef(parts[i + 1]);
+            float score = relevance ? (Float) fields[0] : Float.NaN;
+            // On equal sort values Lucene returns docs numbered above after.doc. The unique id ends every
+            // sort, so the only tie is the cursor's own post, which the highest doc number excludes
+            return new FieldDoc(maxDoc - 1, score, fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new RuntimeException("Search index unavailable", e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Could not release index searcher: {}", e.getMessage());
+        }
+    }
+
+    private double sizeOnDisk() {
+        long bytes = 0;
+        try {
+            for (String file : directory.listAll()) {
+                try {
+                    bytes += directory.fileLength(file);
+                } catch (IOException e) {
+                    // Merged away between listing and measuring
+                }
+            }
+        } catch (IOException e) {
+            return Double.NaN;
+        }
+        return bytes;
+    }
+}
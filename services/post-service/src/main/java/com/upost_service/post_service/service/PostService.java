@@ -1,21 +1,38 @@
 package com.upost_service.post_service.service;
 
 import com.upost_service.post_service.Event.PostEvent;
-import com.upost_service.post_service.client.UserServiceClient;
 import com.upost_service.post_service.controller.FileStorageService;
 import com.upost_service.post_service.dto.*;
 import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.model.PostLike;
+import com.upost_service.post_service.model.PostSummary;
+import com.upost_service.post_service.model.Timeline;
+import com.upost_service.post_service.repository.PostLikeRepository;
 import com.upost_service.post_service.repository.PostRepository;
+import com.upost_service.post_service.util.PageCursor;
+import com.user_snapshot_cache.UserSnapshotCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,16 +40,27 @@ import java.util.stream.Collectors;
 public class PostService {
 
     private final PostRepository postRepository;
-    private final UserServiceClient userServiceClient;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final UserSnapshotCache<UserDTO> userSnapshotCache;
     private final FileStorageService fileStorageService;
-
-    private static final String TOPIC_POST_EVENTS = "post-events";
+    private final TimelineService timelineService;
+    private final PostLikeRepository postLikeRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CommentService commentService;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final PostCache postCache;
+    private final MediaProcessingService mediaProcessingService;
+    private final UploadService uploadService;
+    private final RankedFeedService rankedFeedService;
+    private final PostSearchIndex postSearchIndex;
+    private final TrendingHashtagService trendingHashtagService;
+    private final PostEventPublisher postEventPublisher;
+
+    private static final int MAX_SLICE_SIZE = 100;
 
 
     public PostResponse createPost(String userId, CreatePostRequest request, List<MultipartFile> images, MultipartFile video) {
         // Get user details from User Service
-        UserDTO user = userServiceClient.getUserById(userId);
+        UserDTO user = userSnapshotCache.get(userId);
 
 
         // Store images and get URLs
@@ -45,7 +73,10 @@ public class PostService {
         }
 
         String videoUrl = null;
-        if (video != null && !video.isEmpty()) {
+        if (request.getVideoUploadId() != null) {
+            // Large videos arrive through the resumable upload API
+            videoUrl = uploadService.claimForPost(request.getVideoUploadId(), userId);
+        } else if (video != null && !video.isEmpty()) {
             videoUrl = fileStorageService.saveVideo(video); // Implement this method!
         }
 
@@ -55,47 +86,213 @@ public class PostService {
         post.setUserProfilePicture(user.getProfilePicture());
         post.setContent(request.getContent());
         post.setImages(imageUrls != null ? imageUrls : List.of());
+        post.setMediaStatus(imageUrls.isEmpty() ? Post.MEDIA_READY : Post.MEDIA_PROCESSING);
         post.setVideoUrl(videoUrl);
         post.setCreatedAt(LocalDateTime.now());
         post.setUpdatedAt(LocalDateTime.now());
 
         Post savedPost = postRepository.save(post);
-        return mapToPostResponse(savedPost, userId);
+        postSearchIndex.index(savedPost);
+        trendingHashtagService.record(savedPost);
+        postEventPublisher.publishCreated(savedPost);
+
+        // Variants and metadata stripping happen in the background; clients see "processing" until then
+        if (!imageUrls.isEmpty()) {
+            mediaProcessingService.processImages(savedPost.getId(), imageUrls, System.nanoTime());
+        }
+
+        // Push the new post into followers' timelines in the background
+        timelineService.fanOutPost(savedPost, user.getFollowersCount() != null ? user.getFollowersCount() : 0);
+
+        return mapToPostResponse(PostSummary.of(savedPost), false);
     }
 
     public PostResponse getPost(String postId, String currentUserId) {
-        Post post = postRepository.findById(postId)
+        PostSummary post = postCache.get(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
         if (post.isDeleted()) {
             throw new RuntimeException("Post has been deleted");
         }
 
-        return mapToPostResponse(post, currentUserId);
+        return mapToPostResponse(post, postLikeRepository.existsByPostIdAndUserId(postId, currentUserId));
     }
 
     public Page<PostResponse> getUserPosts(String userId, String currentUserId, Pageable pageable) {
-        Page<Post> posts = postRepository.findByUserIdAndIsDeletedFalseOrderByCreatedAtDesc(userId, pageable);
-        return posts.map(post -> mapToPostResponse(post, currentUserId));
+        Page<PostSummary> posts = postRepository.findByUserIdAndIsDeletedFalseOrderByCreatedAtDesc(userId, pageable);
+        Set<String> liked = likedPostIds(currentUserId, posts.getContent());
+        return posts.map(post -> mapToPostResponse(post, liked.contains(post.getId())));
     }
 
     public Page<PostResponse> getFeed(String userId, Pageable pageable) {
-        // Get user's following list from User Service
-        List<String> following = userServiceClient.getUserFollowing(userId);
-        following.add(userId); // Include user's own posts
+        // Read the precomputed timeline, with high-fanout authors merged in.
+        // One entry past the page tells whether another page exists; the total is only a lower bound
+        List<Timeline.Entry> entries = timelineService.getFeedEntries(userId, null, (int) pageable.getOffset() + pageable.getPageSize() + 1);
+        List<String> pageIds = entries.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(Timeline.Entry::getPostId)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(hydrate(pageIds, userId), pageable, entries.size());
+    }
+
+    public Page<PostResponse> getRankedFeed(String userId, Pageable pageable) {
+        // Ranking needs every candidate scored, so a page is the tail of the top (offset + size).
+        // One more is ranked so hasNext holds while candidates remain; the total is only a lower bound
+        List<String> ranked = rankedFeedService.rankFeed(userId, (int) pageable.getOffset() + pageable.getPageSize() + 1);
+        List<String> pageIds = ranked.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(hydrate(pageIds, userId), pageable, ranked.size());
+    }
+
+    public CursorPage<PostResponse> getUserPostsSlice(String userId, String currentUserId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        PageRequest firstRows = PageRequest.of(0, limit + 1);
+
+        List<PostSummary> posts;
+        if (cursor == null) {
+            posts = postRepository.findByUserIdAndIsDeletedFalseOrderByCreatedAtDescIdDesc(userId, firstRows);
+        } else {
+            PageCursor before = PageCursor.decode(cursor);
+            posts = postRepository.findUserPostsBefore(userId, before.getCreatedAt(), before.getObjectId(), firstRows);
+        }
+
+        Set<String> liked = likedPostIds(currentUserId, posts);
+        return CursorPage.of(posts, limit,
+                post -> PageCursor.encode(post.getCreatedAt(), post.getId()),
+                post -> mapToPostResponse(post, liked.contains(post.getId())));
+    }
+
+    public CursorPage<PostResponse> getFeedSlice(String userId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        PageCursor before = cursor != null ? PageCursor.decode(cursor) : null;
+
+        CursorPage<Timeline.Entry> entries = CursorPage.of(
+                timelineService.getFeedEntries(userId, before, limit + 1), limit,
+                entry -> PageCursor.encode(entry.getCreatedAt(), entry.getPostId()),
+                Function.identity());
+
+        List<String> pageIds = entries.getItems().stream()
+                .map(Timeline.Entry::getPostId)
+                .collect(Collectors.toList());
+
+        return new CursorPage<>(hydrate(pageIds, userId), entries.getNextCursor(), entries.isHasNext());
+    }
+
+    public CursorPage<PostResponse> searchPosts(String currentUserId, String query, String userId,
+                                                String hashtag, String mention, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        PostSearchIndex.Hits hits = postSearchIndex.search(query, userId, hashtag, mention, cursor, limit);
+        return new CursorPage<>(hydrate(hits.getPostIds(), currentUserId), hits.getNextCursor(), hits.isHasNext());
+    }
+
+    public Page<AdminPostResponse> adminSearchPosts(String query, String userId, Pageable pageable) {
+        Page<String> hits = postSearchIndex.adminSearch(query, userId, pageable);
+        Map<String, PostSummary> postsById = postCache.getAll(hits.getContent());
+
+        List<AdminPostResponse> content = hits.getContent().stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .map(post -> AdminPostResponse.builder()
+                        .postId(post.getId())
+                        .content(post.getContent())
+                        .userId(post.getUserId())
+                        .username(post.getUsername())
+                        .likesCount(likeCounterBuffer.likesCount(post.getId(), post.getLikesCount()))
+                        .commentsCount(post.getCommentsCount())
+                        .createdAt(post.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, hits.getTotalElements());
+    }
+
+    public long rebuildSearchIndex() {
+        return postSearchIndex.rebuild();
+    }
+
+    public Map<String, Object> replayPostEvents(String afterId, int limit) {
+        return postEventPublisher.replay(afterId, limit);
+    }
+
+    public List<TrendingHashtagResponse> getTrending(String window, int limit) {
+        return trendingHashtagService.getTrending(window, limit);
+    }
+
+    /**
+     * Resolves many posts at once: cache first, one $in query for the misses and one isLiked lookup.
+     * Results follow the request order, with a status for ids that are missing or deleted.
+     */
+    public List<BatchPostResult> getPostsBatch(List<String> postIds, String currentUserId) {
+        Map<String, PostSummary> postsById = postCache.getAll(new LinkedHashSet<>(postIds));
+        List<PostSummary> live = postsById.values().stream()
+                .filter(post -> !post.isDeleted())
+                .collect(Collectors.toList());
+        Set<String> liked = likedPostIds(currentUserId, live);
+
+        return postIds.stream()
+                .map(postId -> {
+                    PostSummary post = postsById.get(postId);
+                    if (post == null) {
+                        return new BatchPostResult(postId, BatchPostResult.NOT_FOUND, null);
+                    }
+                    if (post.isDeleted()) {
+                        return new BatchPostResult(postId, BatchPostResult.DELETED, null);
+                    }
+                    return new BatchPostResult(postId, BatchPostResult.FOUND,
+                            mapToPostResponse(post, liked.contains(postId)));
+                })
+                .collect(Collectors.toList());
+    }
 
-        Page<Post> posts = postRepository.findByUserIdInAndIsDeletedFalseOrderByCreatedAtDesc(following, pageable);
-        return posts.map(post -> mapToPostResponse(post, userId));
+    // Loads posts in one $in query and returns them in the given order, skipping deleted ones
+    private List<PostResponse> hydrate(List<String> postIds, String currentUserId) {
+        Map<String, PostSummary> postsById = postCache.getAll(postIds).values().stream()
+                .filter(post -> !post.isDeleted())
+                .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+        Set<String> liked = likedPostIds(currentUserId, postsById.values());
+
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .map(post -> mapToPostResponse(post, liked.contains(post.getId())))
+                .collect(Collectors.toList());
+    }
+
+    // One indexed lookup answers isLiked for a whole page of posts
+    private Set<String> likedPostIds(String userId, Collection<PostSummary> posts) {
+        if (userId == null || posts.isEmpty()) {
+            return Set.of();
+        }
+        List<String> postIds = posts.stream().map(PostSummary::getId).collect(Collectors.toList());
+        return postLikeRepository.findByUserIdAndPostIdIn(userId, postIds).stream()
+                .map(PostLike::getPostId)
+                .collect(Collectors.toSet());
     }
 
     public PostResponse likePost(String postId, String userId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
-        post.getLikes().add(userId);
-        Post savedPost = postRepository.save(post);
+        PostLike like = new PostLike();
+        like.setPostId(postId);
+        like.setUserId(userId);
+        like.setPostOwnerId(post.getUserId());
+        like.setCreatedAt(LocalDateTime.now());
+
+        try {
+            postLikeRepository.insert(like);
+        } catch (DuplicateKeyException e) {
+            // Already liked; the unique index keeps this idempotent
+            return mapToPostResponse(PostSummary.of(post), true);
+        }
+
+        likeCounterBuffer.add(postId, 1);
 
-        UserDTO user = userServiceClient.getUserById(userId);
+        UserDTO user = userSnapshotCache.get(userId);
         PostEvent event = new PostEvent();
         event.setType("POST_LIKED");
         event.setPostId(postId);
@@ -103,26 +300,31 @@ public class PostService {
         event.setUserId(userId);
         event.setUsername(user.getUsername());
 
-        kafkaTemplate.send(TOPIC_POST_EVENTS, event);
+        postEventPublisher.send(event);
 
-        return mapToPostResponse(savedPost, userId);
+        return mapToPostResponse(PostSummary.of(post), true);
     }
 
     public PostResponse unlikePost(String postId, String userId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
-        post.getLikes().remove(userId);
-        Post savedPost = postRepository.save(post);
+        if (postLikeRepository.deleteByPostIdAndUserId(postId, userId) > 0) {
+            likeCounterBuffer.add(postId, -1);
+        }
 
-        return mapToPostResponse(savedPost, userId);
+        return mapToPostResponse(PostSummary.of(post), false);
     }
 
     public PostResponse addComment(String postId, String userId, CommentRequest request) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
-        UserDTO user = userServiceClient.getUserById(userId);
+        if (post.isDeleted()) {
+            throw new RuntimeException("Post has been deleted");
+        }
+
+        UserDTO user = userSnapshotCache.get(userId);
 
         Post.Comment comment = new Post.Comment();
         comment.setUserId(userId);
@@ -130,10 +332,15 @@ public class PostService {
         comment.setUserProfilePicture(user.getProfilePicture());
         comment.setContent(request.getContent());
 
-        post.getComments().add(comment);
-        post.setUpdatedAt(LocalDateTime.now());
+        commentService.addComment(postId, comment);
+        postCache.invalidate(postId);
 
-        Post savedPost = postRepository.save(post);
+        post.getRecentComments().add(comment);
+        if (post.getRecentComments().size() > CommentService.RECENT_COMMENTS) {
+            post.getRecentComments().remove(0);
+        }
+        post.setCommentsCount(post.getCommentsCount() + 1);
+        post.setUpdatedAt(comment.getCreatedAt());
 
         PostEvent event = new PostEvent();
         event.setType("COMMENT");
@@ -143,9 +350,9 @@ public class PostService {
         event.setUsername(user.getUsername());
         event.setComment(request.getContent());
 
-        kafkaTemplate.send(TOPIC_POST_EVENTS, event);
+        postEventPublisher.send(event);
 
-        return mapToPostResponse(savedPost, userId);
+        return mapToPostResponse(PostSummary.of(post), postLikeRepository.existsByPostIdAndUserId(postId, userId));
     }
 
     public void deletePost(String postId, String userId) {
@@ -156,36 +363,64 @@ public class PostService {
             throw new RuntimeException("You can only delete your own posts");
         }
 
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)),
+                new Update().set("isDeleted", true).set("deletedAt", LocalDateTime.now()).set("updatedAt", LocalDateTime.now()), Post.class);
+        postCache.invalidate(postId);
+        postSearchIndex.delete(postId);
+
         post.setDeleted(true);
-        post.setUpdatedAt(LocalDateTime.now());
-        postRepository.save(post);
-    }
-
-        private PostResponse mapToPostResponse(Post post, String currentUserId) {
-            List<CommentResponse> recentComments = post.getComments().stream()
-                    .skip(Math.max(0, post.getComments().size() - 3))
-                    .map(comment -> CommentResponse.builder()
-                            .id(comment.getId())
-                            .userId(comment.getUserId())
-                            .username(comment.getUsername())
-                            .userProfilePicture(comment.getUserProfilePicture())
-                            .content(comment.getContent())
-                            .createdAt(comment.getCreatedAt())
+        post.setDeletedAt(LocalDateTime.now());
+        post.setUpdatedAt(post.getDeletedAt());
+        postEventPublisher.publishDeleted(post);
+    }
+
+    public CursorPage<CommentResponse> getComments(String postId, String cursor, int size) {
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new RuntimeException("Post not found"));
+
+        if (post.isDeleted()) {
+            throw new RuntimeException("Post has been deleted");
+        }
+
+        return commentService.getComments(postId, cursor, size);
+    }
+
+        private PostResponse mapToPostResponse(PostSummary post, boolean isLiked) {
+            List<CommentResponse> recentComments = post.getRecentComments().stream()
+                    .map(CommentService::toResponse)
+                    .collect(Collectors.toList());
+
+            List<ImageVariantResponse> imageVariants = post.getImageVariants().stream()
+                    .map(variant -> ImageVariantResponse.builder()
+                            .original(variant.getOriginal())
+                            .medium(variant.getMedium())
+                            .thumbnail(variant.getThumbnail())
+                            .width(variant.getWidth())
+                            .height(variant.getHeight())
                             .build())
                     .collect(Collectors.toList());
 
+            // Feed clients get the medium rendition wherever one exists
+            List<String> images = imageVariants.isEmpty()
+                    ? post.getImages()
+                    : imageVariants.stream()
+                            .map(variant -> variant.getMedium() != null ? variant.getMedium() : variant.getOriginal())
+                            .collect(Collectors.toList());
+
         return PostResponse.builder()
                 .id(post.getId())
                 .userId(post.getUserId())
                 .username(post.getUsername())
                 .userProfilePicture(post.getUserProfilePicture())
                 .content(post.getContent())
-                .images(post.getImages())
+                .images(images)
+                .imageVariants(imageVariants)
+                .mediaStatus(post.getMediaStatus())
                 .video(post.getVideoUrl())
-                .likesCount(post.getLikes().size())
-                .commentsCount(post.getComments().size())
+                .likesCount(likeCounterBuffer.likesCount(post.getId(), post.getLikesCount()))
+                .commentsCount(post.getCommentsCount())
                 .sharesCount(post.getSharesCount())
-                .isLiked(post.getLikes().contains(currentUserId))
+                .isLiked(isLiked)
                 .recentComments(recentComments)
                 .createdAt(post.getCreatedAt())
                 .build();
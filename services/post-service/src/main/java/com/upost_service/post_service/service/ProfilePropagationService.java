@@ -0,0 +1,273 @@
+package com.upost_service.post_service.service;
+
+import com.upost_service.post_service.Event.UserEvent;
+import com.upost_service.post_service.model.CommentBucket;
+import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.model.ProfilePropagation;
+import com.upost_service.post_service.util.BatchThrottle;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Rewrites the author name and avatar copied into posts, recent comments and comment buckets
+ * when a user changes their profile. PROFILE_UPDATED only records a job; a scheduled worker
+ * leases one job at a time and walks each collection in bounded keyset batches, one updateMany
+ * per batch, checkpointing after each and backing off when Mongo slows down.
+ */
+@Service
+@Slf4j
+public class ProfilePropagationService {
+
+    public static final String PROFILE_UPDATED = "PROFILE_UPDATED";
+
+    private static final List<String> STAGES = List.of(
+            ProfilePropagation.STAGE_POSTS,
+            ProfilePropagation.STAGE_RECENT_COMMENTS,
+            ProfilePropagation.STAGE_COMMENT_BUCKETS);
+
+    private final MongoTemplate mongoTemplate;
+    private final PostCache postCache;
+    private final MeterRegistry meterRegistry;
+    private final Timer batchLatency;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${profile.propagation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${profile.propagation.batch-size:200}")
+    private int batchSize;
+
+    @Value("${profile.propagation.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Value("${profile.propagation.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${profile.propagation.target-latency-ms:5}")
+    private long targetLatencyMs;
+
+    @Value("${profile.propagation.max-pause-ms:2000}")
+    private long maxPauseMs;
+
+    public ProfilePropagationService(MongoTemplate mongoTemplate, PostCache postCache, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.postCache = postCache;
+        this.meterRegistry = meterRegistry;
+        this.batchLatency = Timer.builder("profile.propagation.batch.latency")
+                .description("Time to rewrite one batch of denormalized profile fields")
+                .register(meterRegistry);
+    }
+
+    // One shared group: each change has to be recorded once, not once per replica
+    @KafkaListener(topics = "user-events",
+            groupId = "${profile.propagation.group-id}",
+            properties = "spring.json.value.default.type=com.upost_service.post_service.Event.UserEvent")
+    public void handleUserEvent(UserEvent event) {
+        if (!PROFILE_UPDATED.equals(event.getType()) || event.getUserId() == null) {
+            return;
+        }
+        Update update = new Update()
+                .set("username", event.getUsername())
+                .set("profilePicture", event.getProfilePicture())
+                .set("stage", STAGES.get(0))
+                .unset("lastId")
+                .unset("lastCreatedAt")
+                .set("updated", 0)
+                .set("requestedAt", LocalDateTime.now())
+                .inc("generation", 1);
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(event.getUserId())), update, ProfilePropagation.class);
+    }
+
+    @Scheduled(fixedDelayString = "${profile.propagation.interval-ms:5000}")
+    public void propagatePending() {
+        if (!enabled) {
+            return;
+        }
+        int batches = 0;
+        ProfilePropagation job;
+        while (batches < maxBatchesPerRun && (job = claim()) != null) {
+            batches += run(job, maxBatchesPerRun - batches);
+        }
+    }
+
+    // Oldest unleased job; an expired lease means its worker died and the job resumes from its checkpoint
+    private ProfilePropagation claim() {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(new Criteria().orOperator(
+                        Criteria.where("leaseUntil").is(null),
+                        Criteria.where("leaseUntil").lt(now)))
+                .with(Sort.by("requestedAt"));
+        Update lease = new Update().set("leaseOwner", owner).set("leaseUntil", now.plus(Duration.ofMillis(leaseMs)));
+        return mongoTemplate.findAndModify(query, lease, FindAndModifyOptions.options().returnNew(true),
+                ProfilePropagation.class);
+    }
+
+    private int run(ProfilePropagation job, int budget) {
+        int batches = 0;
+        while (batches < budget) {
+            long started = System.nanoTime();
+            int rewritten = switch (job.getStage()) {
+                case ProfilePropagation.STAGE_POSTS -> rewritePosts(job);
+                case ProfilePropagation.STAGE_RECENT_COMMENTS -> rewriteRecentComments(job);
+                default -> rewriteCommentBuckets(job);
+            };
+            long elapsed = System.nanoTime() - started;
+            batchLatency.record(elapsed, TimeUnit.NANOSECONDS);
+            batches++;
+            job.setUpdated(job.getUpdated() + rewritten);
+
+            if (rewritten < batchSize) {
+                int next = STAGES.indexOf(job.getStage()) + 1;
+                if (next == STAGES.size()) {
+                    finish(job);
+                    return batches;
+                }
+                job.setStage(STAGES.get(next));
+                job.setLastId(null);
+                job.setLastCreatedAt(null);
+            }
+            if (!checkpoint(job) || !BatchThrottle.pauseIfSlow("Propagation",
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), rewritten, targetLatencyMs, maxPauseMs)) {
+                return batches;
+            }
+        }
+        // Out of budget for this run; hand the job back so the next run, here or on another replica, resumes it
+        release();
+        return batches;
+    }
+
+    // The user's live posts, newest first along user_created_live_index
+    private int rewritePosts(ProfilePropagation job) {
+        Criteria criteria = Criteria.where("userId").is(job.getId()).and("isDeleted").is(false);
+        if (job.getLastId() != null) {
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(job.getLastCreatedAt()),
+                    Criteria.where("createdAt").is(job.getLastCreatedAt()).and("_id").lt(new ObjectId(job.getLastId()))));
+        }
+        Query page = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .limit(batchSize);
+        page.fields().include("_id", "createdAt");
+        List<Post> posts = mongoTemplate.find(page, Post.class);
+        if (posts.isEmpty()) {
+            return 0;
+        }
+
+        List<String> ids = posts.stream().map(Post::getId).collect(Collectors.toList());
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                new Update().set("username", job.getUsername()).set("userProfilePicture", job.getProfilePicture()),
+                Post.class);
+        postCache.invalidate(ids);
+
+        Post last = posts.get(posts.size() - 1);
+        job.setLastId(last.getId());
+        job.setLastCreatedAt(last.getCreatedAt());
+        return record(ProfilePropagation.STAGE_POSTS, ids.size());
+    }
+
+    private int rewriteRecentComments(ProfilePropagation job) {
+        List<String> ids = nextIds(job, "recentComments.userId", Post.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                commentUpdate("recentComments", job), Post.class);
+        postCache.invalidate(ids);
+        job.setLastId(ids.get(ids.size() - 1));
+        return record(ProfilePropagation.STAGE_RECENT_COMMENTS, ids.size());
+    }
+
+    private int rewriteCommentBuckets(ProfilePropagation job) {
+        List<String> ids = nextIds(job, "comments.userId", CommentBucket.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                commentUpdate("comments", job), CommentBucket.class);
+        job.setLastId(ids.get(ids.size() - 1));
+        return record(ProfilePropagation.STAGE_COMMENT_BUCKETS, ids.size());
+    }
+
+    // Ids of documents holding one of the user's comments, past the checkpoint in _id order
+    private List<String> nextIds(ProfilePropagation job, String userField, Class<?> type) {
+        Criteria criteria = Criteria.where(userField).is(job.getId());
+        if (job.getLastId() != null) {
+            criteria = criteria.and("_id").gt(new ObjectId(job.getLastId()));
+        }
+        Query page = Query.query(criteria).with(Sort.by("_id")).limit(batchSize);
+        page.fields().include("_id");
+        return mongoTemplate.find(page, Document.class, mongoTemplate.getCollectionName(type)).stream()
+                .map(document -> document.get("_id").toString())
+                .collect(Collectors.toList());
+    }
+
+    // Only the array elements written by the user are touched
+    private static Update commentUpdate(String array, ProfilePropagation job) {
+        return new Update()
+                .set(array + ".$[c].username", job.getUsername())
+                .set(array + ".$[c].userProfilePicture", job.getProfilePicture())
+                .filterArray(Criteria.where("c.userId").is(job.getId()));
+    }
+
+    private int record(String stage, int rewritten) {
+        meterRegistry.counter("profile.propagation.updated", "collection", stage).increment(rewritten);
+        return rewritten;
+    }
+
+    /**
+     * Saves the stage and position and extends the lease. Fails if a newer profile change
+     * restarted the job, in which case this worker lets go of it.
+     */
+    private boolean checkpoint(ProfilePropagation job) {
+        Update update = new Update()
+                .set("stage", job.getStage())
+                .set("lastId", job.getLastId())
+                .set("lastCreatedAt", job.getLastCreatedAt())
+                .set("updated", job.getUpdated())
+                .set("leaseUntil", LocalDateTime.now().plus(Duration.ofMillis(leaseMs)));
+        boolean saved = mongoTemplate.updateFirst(current(job), update, ProfilePropagation.class).getModifiedCount() > 0;
+        if (!saved) {
+            release();
+        }
+        return saved;
+    }
+
+    private void finish(ProfilePropagation job) {
+        if (mongoTemplate.remove(current(job), ProfilePropagation.class).getDeletedCount() > 0) {
+            log.info("Propagated profile of user {} to {} documents", job.getId(), job.getUpdated());
+        } else {
+            release();
+        }
+    }
+
+    private void release() {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("leaseOwner").is(owner)),
+                new Update().unset("leaseOwner").unset("leaseUntil"), ProfilePropagation.class);
+    }
+
+    private Query current(ProfilePropagation job) {
+        return Query.query(Criteria.where("_id").is(job.getId())
+                .and("generation").is(job.getGeneration())
+                .and("leaseOwner").is(owner));
+    }
+}
@@ -0,0 +1,96 @@
+package com.upost_service.post_service.service;
+
+import com.upost_service.post_service.config.FeedRankingProperties;
+import com.upost_service.post_service.model.PostLike;
+import com.upost_service.post_service.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked home feed: pulls a bounded, recent candidate set from every followed author in
+ * parallel, then lets FeedRanker keep the top k by score.
+ */
+@Service
+@Slf4j
+public class RankedFeedService {
+
+    private final PostRepository postRepository;
+    private final FollowingCache followingCache;
+    private final MongoTemplate mongoTemplate;
+    private final FeedRanker feedRanker;
+    private final FeedRankingProperties properties;
+    private final Executor feedRankingExecutor;
+
+    public RankedFeedService(PostRepository postRepository,
+                             FollowingCache followingCache,
+                             MongoTemplate mongoTemplate,
+                             FeedRanker feedRanker,
+                             FeedRankingProperties properties,
+                             @Qualifier("feedRankingExecutor") Executor feedRankingExecutor) {
+        this.postRepository = postRepository;
+        this.followingCache = followingCache;
+        this.mongoTemplate = mongoTemplate;
+        this.feedRanker = feedRanker;
+        this.properties = properties;
+        this.feedRankingExecutor = feedRankingExecutor;
+    }
+
+    /**
+     * Returns up to k post ids, best first.
+     */
+    public List<String> rankFeed(String userId, int k) {
+        List<String> authors = new ArrayList<>(followingCache.get(userId).stream()
+                .limit(properties.getMaxAuthors())
+                .collect(Collectors.toList()));
+        authors.add(userId);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = now.minusHours(properties.getCandidateWindowHours());
+        PageRequest perAuthor = PageRequest.of(0, properties.getCandidatesPerAuthor());
+
+        List<CompletableFuture<List<FeedRanker.Candidate>>> futures = authors.stream()
+                .map(author -> CompletableFuture.supplyAsync(() -> postRepository
+                        .findRankingCandidates(author, since, perAuthor).stream()
+                        .map(post -> new FeedRanker.Candidate(post.getId(), post.getUserId(), post.getCreatedAt(),
+                                post.getLikesCount(), post.getCommentsCount()))
+                        .collect(Collectors.toList()), feedRankingExecutor))
+                .collect(Collectors.toList());
+
+        Map<String, Long> affinity = likesByAuthor(userId, authors);
+        List<List<FeedRanker.Candidate>> candidates = futures.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+
+        return feedRanker.topK(candidates, affinity, k, now).stream()
+                .map(scored -> scored.getCandidate().getPostId())
+                .collect(Collectors.toList());
+    }
+
+    // How many posts of each author the viewer has liked, from the post_likes edges
+    private Map<String, Long> likesByAuthor(String userId, List<String> authors) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId).and("postOwnerId").in(authors)),
+                Aggregation.group("postOwnerId").count().as("likes"));
+
+        Map<String, Long> likes = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, PostLike.class, Document.class)) {
+            likes.put(row.getString("_id"), ((Number) row.get("likes")).longValue());
+        }
+        return likes;
+    }
+}
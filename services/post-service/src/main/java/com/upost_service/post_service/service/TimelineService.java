@@ -0,0 +1,234 @@
+package com.upost_service.post_service.service;
+
+import com.upost_service.post_service.Event.UserEvent;
+import com.upost_service.post_service.client.UserServiceClient;
+import com.upost_service.post_service.dto.CursorPage;
+import com.upost_service.post_service.model.HighFanoutAuthor;
+import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.model.Timeline;
+import com.upost_service.post_service.repository.HighFanoutAuthorRepository;
+import com.upost_service.post_service.repository.PostRepository;
+import com.upost_service.post_service.repository.TimelineRepository;
+import com.upost_service.post_service.util.PageCursor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fan-out-on-write home timelines.
+ * New posts are pushed into each follower's capped timeline in the background;
+ * authors above the follower threshold are skipped and merged in at read time.
+ * FOLLOW merges the followee's recent posts into an existing timeline and UNFOLLOW removes them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimelineService {
+
+    private static final long HIGH_FANOUT_REFRESH_MS = 30_000;
+
+    // Same order as the (createdAt, _id) keyset used by the posts collection
+    private static final Comparator<Timeline.Entry> NEWEST_FIRST = Comparator
+            .comparing(Timeline.Entry::getCreatedAt)
+            .thenComparing(Timeline.Entry::getPostId)
+            .reversed();
+
+    private final TimelineRepository timelineRepository;
+    private final HighFanoutAuthorRepository highFanoutAuthorRepository;
+    private final PostRepository postRepository;
+    private final UserServiceClient userServiceClient;
+    private final FollowingCache followingCache;
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${feed.timeline.max-size:800}")
+    private int maxTimelineSize;
+
+    @Value("${feed.fanout.follower-threshold:10000}")
+    private long followerThreshold;
+
+    @Value("${feed.fanout.batch-size:500}")
+    private int fanoutBatchSize;
+
+    private volatile Set<String> highFanoutAuthors = Set.of();
+    private volatile long highFanoutLoadedAt;
+
+    // Shared group: each follow change is applied to the timeline once. Keyed by follower, so in order
+    @KafkaListener(topics = "user-events",
+            groupId = "${feed.timeline.group-id}",
+            properties = "spring.json.value.default.type=com.upost_service.post_service.Event.UserEvent")
+    public void handleUserEvent(UserEvent event) {
+        String followerId = event.getUserId();
+        String followeeId = event.getTargetUserId();
+        if (followerId == null || followeeId == null) {
+            return;
+        }
+        if (FollowingCache.FOLLOW.equals(event.getType())) {
+            mergeAuthor(followerId, followeeId);
+        } else if (FollowingCache.UNFOLLOW.equals(event.getType())) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(followerId)),
+                    new Update().pull("entries", new Document("authorId", followeeId)), Timeline.class);
+        }
+    }
+
+    // Timelines not built yet get the followee on their first read; high-fanout authors are pulled at read time
+    private void mergeAuthor(String followerId, String followeeId) {
+        if (getHighFanoutAuthors().contains(followeeId)
+                || !mongoTemplate.exists(Query.query(Criteria.where("_id").is(followerId)), Timeline.class)) {
+            return;
+        }
+        Object[] entries = postRepository
+                .findByUserIdInAndIsDeletedFalseOrderByCreatedAtDescIdDesc(List.of(followeeId), PageRequest.of(0, maxTimelineSize))
+                .stream()
+                .map(post -> new Timeline.Entry(post.getId(), post.getUserId(), post.getCreatedAt()))
+                .toArray();
+        if (entries.length == 0) {
+            return;
+        }
+        Update update = new Update()
+                .set("updatedAt", LocalDateTime.now());
+        update.push("entries")
+                .sort(Sort.by(Sort.Direction.DESC, "createdAt", "postId"))
+                .slice(maxTimelineSize)
+                .each(entries);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(followerId)), update, Timeline.class);
+    }
+
+    @Async("feedFanoutExecutor")
+    public void fanOutPost(Post post, long followersCount) {
+        Timeline.Entry entry = new Timeline.Entry(post.getId(), post.getUserId(), post.getCreatedAt());
+
+        // Authors always see their own posts, whatever their follower count
+        pushEntry(List.of(post.getUserId()), entry);
+
+        if (followersCount >= followerThreshold) {
+            markHighFanout(post.getUserId(), followersCount);
+            return;
+        }
+
+        try {
+            // One page of follower ids per push, so the full list is never held or sent at once
+            long delivered = 0;
+            String cursor = null;
+            do {
+                CursorPage<String> followers = userServiceClient.getUserFollowersPage(post.getUserId(), cursor, fanoutBatchSize);
+                if (!followers.getItems().isEmpty()) {
+                    pushEntry(followers.getItems(), entry);
+                }
+                delivered += followers.getItems().size();
+                cursor = followers.isHasNext() ? followers.getNextCursor() : null;
+            } while (cursor != null);
+            log.debug("Fanned out post {} to {} followers", post.getId(), delivered);
+        } catch (Exception e) {
+            log.error("Fan-out failed for post {}: {}", post.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the merged feed candidates for a user, newest first, optionally after a keyset cursor.
+     * Builds the timeline from the posts collection the first time a user reads it.
+     */
+    public List<Timeline.Entry> getFeedEntries(String userId, PageCursor before, int limit) {
+        List<String> following = followingCache.get(userId);
+
+        Set<String> highFanout = getHighFanoutAuthors();
+        List<String> pulledAuthors = following.stream()
+                .filter(highFanout::contains)
+                .collect(Collectors.toList());
+
+        Timeline timeline = timelineRepository.findById(userId)
+                .orElseGet(() -> rebuildTimeline(userId, following, highFanout));
+
+        List<Timeline.Entry> merged = new ArrayList<>(timeline.getEntries());
+        if (!pulledAuthors.isEmpty()) {
+            List<Post> pulled = before == null
+                    ? postRepository.findByUserIdInAndIsDeletedFalseOrderByCreatedAtDescIdDesc(pulledAuthors, PageRequest.of(0, limit))
+                    : postRepository.findByUserIdInBefore(pulledAuthors, before.getCreatedAt(), before.getObjectId(), PageRequest.of(0, limit));
+            pulled.forEach(post -> merged.add(new Timeline.Entry(post.getId(), post.getUserId(), post.getCreatedAt())));
+        }
+
+        Map<String, Timeline.Entry> unique = new LinkedHashMap<>();
+        merged.stream()
+                .filter(e -> e.getCreatedAt() != null)
+                .filter(e -> before == null || isBefore(e, before))
+                .sorted(NEWEST_FIRST)
+                .forEach(e -> unique.putIfAbsent(e.getPostId(), e));
+
+        return unique.values().stream().limit(limit).collect(Collectors.toList());
+    }
+
+    private static boolean isBefore(Timeline.Entry entry, PageCursor cursor) {
+        int byTime = entry.getCreatedAt().compareTo(cursor.getCreatedAt());
+        return byTime < 0 || (byTime == 0 && entry.getPostId().compareTo(cursor.getId()) < 0);
+    }
+
+    private Timeline rebuildTimeline(String userId, List<String> following, Set<String> highFanout) {
+        List<String> authors = following.stream()
+                .filter(id -> !highFanout.contains(id))
+                .collect(Collectors.toCollection(ArrayList::new));
+        authors.add(userId);
+
+        List<Timeline.Entry> entries = postRepository
+                .findByUserIdInAndIsDeletedFalseOrderByCreatedAtDescIdDesc(authors, PageRequest.of(0, maxTimelineSize))
+                .stream()
+                .map(post -> new Timeline.Entry(post.getId(), post.getUserId(), post.getCreatedAt()))
+                .collect(Collectors.toList());
+
+        Timeline timeline = new Timeline();
+        timeline.setUserId(userId);
+        timeline.setEntries(new ArrayList<>(entries));
+        timeline.setUpdatedAt(LocalDateTime.now());
+
+        log.info("Built timeline for user {} with {} entries", userId, entries.size());
+        return timelineRepository.save(timeline);
+    }
+
+    private void pushEntry(List<String> userIds, Timeline.Entry entry) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Timeline.class);
+        for (String userId : userIds) {
+            Update update = new Update()
+                    .set("updatedAt", LocalDateTime.now());
+            update.push("entries").atPosition(0).slice(maxTimelineSize).each(entry);
+            bulk.upsert(Query.query(Criteria.where("_id").is(userId)), update);
+        }
+        bulk.execute();
+    }
+
+    private void markHighFanout(String userId, long followersCount) {
+        HighFanoutAuthor author = new HighFanoutAuthor();
+        author.setUserId(userId);
+        author.setFollowersCount(followersCount);
+        author.setUpdatedAt(LocalDateTime.now());
+        highFanoutAuthorRepository.save(author);
+        highFanoutLoadedAt = 0;
+    }
+
+    private Set<String> getHighFanoutAuthors() {
+        if (System.currentTimeMillis() - highFanoutLoadedAt > HIGH_FANOUT_REFRESH_MS) {
+            highFanoutAuthors = highFanoutAuthorRepository.findAll().stream()
+                    .map(HighFanoutAuthor::getUserId)
+                    .collect(Collectors.toUnmodifiableSet());
+            highFanoutLoadedAt = System.currentTimeMillis();
+        }
+        return highFanoutAuthors;
+    }
+}
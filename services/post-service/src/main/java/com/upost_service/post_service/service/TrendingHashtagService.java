@@ -0,0 +1,194 @@
+package com.upost_service.post_service.service;
+
+import com.sketches.CountMinSketch;
+import com.upost_service.post_service.dto.TrendingHashtagResponse;
+import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.util.ContentTags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Trending hashtags over sliding 5m/1h/24h windows, held entirely in memory.
+ * Each window is a ring of time buckets, each bucket a count-min sketch; a running total
+ * sketch has expired buckets subtracted from it. A bounded candidate set tracks the
+ * heavy hitters, so memory stays fixed however many distinct tags appear.
+ */
+@Service
+@Slf4j
+public class TrendingHashtagService {
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, Window> windows = new LinkedHashMap<>();
+
+    @Value("${trending.max-results:50}")
+    private int maxResults;
+
+    public TrendingHashtagService(MongoTemplate mongoTemplate,
+                                  @Value("${trending.sketch.depth:4}") int depth,
+                                  @Value("${trending.sketch.width:2048}") int width,
+                                  @Value("${trending.candidates:200}") int candidates) {
+        this.mongoTemplate = mongoTemplate;
+        windows.put("5m", new Window(Duration.ofSeconds(10), 30, depth, width, candidates));
+        windows.put("1h", new Window(Duration.ofMinutes(1), 60, depth, width, candidates));
+        windows.put("24h", new Window(Duration.ofMinutes(15), 96, depth, width, candidates));
+    }
+
+    public void record(Post post) {
+        record(ContentTags.hashtags(post.getContent()), post.getCreatedAt());
+    }
+
+    public List<TrendingHashtagResponse> getTrending(String window, int limit) {
+        Window selected = windows.get(window);
+        if (selected == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Window must be one of " + windows.keySet());
+        }
+        return selected.top(System.currentTimeMillis(), Math.max(1, Math.min(limit, maxResults)));
+    }
+
+    /**
+     * Refills the windows from the last 24h of posts, oldest first, using the createdAt index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayRecentPosts() {
+        Query recent = Query.query(Criteria.where("createdAt").gte(LocalDateTime.now().minusHours(24))
+                        .and("isDeleted").is(false))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        recent.fields().include("content", "createdAt");
+
+        long replayed = 0;
+        try (Stream<Post> posts = mongoTemplate.stream(recent, Post.class)) {
+            for (Post post : (Iterable<Post>) posts::iterator) {
+                record(post);
+                replayed++;
+            }
+        }
+        log.info("Replayed {} recent posts into trending hashtag windows", replayed);
+    }
+
+    private void record(Collection<String> hashtags, LocalDateTime createdAt) {
+        if (hashtags.isEmpty() || createdAt == null) {
+            return;
+        }
+        long timestamp = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (Window window : windows.values()) {
+            window.add(hashtags, timestamp);
+        }
+    }
+
+    private static final class Window {
+        private final long bucketMillis;
+        private final int bucketCount;
+        private final CountMinSketch[] buckets;
+        private final CountMinSketch total;
+        private final int maxCandidates;
+        private final Map<String, Long> candidates = new HashMap<>();  // tag -> estimate when last seen
+        private long headEpoch = Long.MIN_VALUE;  // bucket number of the newest slot
+
+        Window(Duration bucket, int bucketCount, int depth, int width, int maxCandidates) {
+            this.bucketMillis = bucket.toMillis();
+            this.bucketCount = bucketCount;
+            this.buckets = new CountMinSketch[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new CountMinSketch(depth, width);
+            }
+            this.total = new CountMinSketch(depth, width);
+            this.maxCandidates = maxCandidates;
+        }
+
+        synchronized void add(Collection<String> hashtags, long timestamp) {
+            long epoch = timestamp / bucketMillis;
+            advance(epoch);
+            if (epoch <= headEpoch - bucketCount) {
+                return;  // already outside the window
+            }
+
+            CountMinSketch bucket = buckets[(int) Math.floorMod(epoch, (long) bucketCount)];
+            for (String tag : hashtags) {
+                bucket.add(tag, 1);
+                total.add(tag, 1);
+                offerCandidate(tag, total.estimate(tag));
+            }
+        }
+
+        synchronized List<TrendingHashtagResponse> top(long now, int limit) {
+            advance(now / bucketMillis);
+
+            List<TrendingHashtagResponse> ranked = new ArrayList<>();
+            candidates.forEach((tag, count) -> ranked.add(new TrendingHashtagResponse(tag, count)));
+
+            return ranked.stream()
+                    .sorted(Comparator.comparingLong(TrendingHashtagResponse::getCount).reversed()
+                            .thenComparing(TrendingHashtagResponse::getHashtag))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+
+        // A tag enters the candidate set once it beats the weakest member
+        private void offerCandidate(String tag, long estimate) {
+            if (candidates.containsKey(tag) || candidates.size() < maxCandidates) {
+                candidates.put(tag, estimate);
+                return;
+            }
+            Map.Entry<String, Long> weakest = null;
+            for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+                if (weakest == null || entry.getValue() < weakest.getValue()) {
+                    weakest = entry;
+                }
+            }
+            if (estimate > weakest.getValue()) {
+                candidates.remove(weakest.getKey());
+                candidates.put(tag, estimate);
+            }
+        }
+
+        // Slides the ring forward, dropping every bucket that fell out of the window
+        private void advance(long epoch) {
+            if (headEpoch == Long.MIN_VALUE) {
+                headEpoch = epoch;
+                return;
+            }
+            if (epoch <= headEpoch) {
+                return;
+            }
+            if (epoch - headEpoch >= bucketCount) {
+                for (CountMinSketch bucket : buckets) {
+                    bucket.clear();
+                }
+                total.clear();
+            } else {
+                for (long e = headEpoch + 1; e <= epoch; e++) {
+                    CountMinSketch expired = buckets[(int) Math.floorMod(e, (long) bucketCount)];
+                    total.subtract(expired);
+                    expired.clear();
+                }
+            }
+            headEpoch = epoch;
+
+            // Expired buckets lowered the totals; stale estimates would keep dead tags from being displaced
+            candidates.replaceAll((tag, stale) -> total.estimate(tag));
+            candidates.values().removeIf(count -> count <= 0);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.upost_service.post_service.service;
+
+import com.media_blob_store.BlobStore;
+import com.upost_service.post_service.controller.FileStorageService;
+import com.upost_service.post_service.dto.CreateUploadRequest;
+import com.upost_service.post_service.dto.UploadSessionResponse;
+import com.upost_service.post_service.model.UploadSession;
+import com.upost_service.post_service.repository.UploadSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable chunked uploads for large videos.
+ * The client creates a session, PUTs byte ranges (in any order, several at once if it likes),
+ * asks for the offset after a dropped connection, and finalizes. Each chunk is streamed from the
+ * request body straight into its position in the partial file; nothing is spooled or copied.
+ */
+@Service
+@Slf4j
+public class UploadService {
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("^bytes (\\d+)-(\\d+)/(\\d+)$");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final BlobStore blobStore;
+    private final Path partialDir;
+
+    @Value("${upload.sessions.max-size:2147483648}")
+    private long maxSize;
+
+    @Value("${upload.sessions.ttl-hours:24}")
+    private long ttlHours;
+
+    public UploadService(UploadSessionRepository uploadSessionRepository,
+                         MongoTemplate mongoTemplate,
+                         BlobStore blobStore,
+                         @Value("${upload.sessions.partial-dir:${upload.path:uploads}-partial}") String partialDir) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.blobStore = blobStore;
+        // Kept outside upload.path, which is served publicly under /uploads/**
+        this.partialDir = Path.of(partialDir);
+    }
+
+    public UploadSessionResponse createSession(String userId, CreateUploadRequest request) {
+        if (request.getSize() > maxSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Upload exceeds " + maxSize + " bytes");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setUserId(userId);
+        session.setFileName(request.getFileName());
+        session.setSize(request.getSize());
+        session.setCreatedAt(LocalDateTime.now());
+        session.setUpdatedAt(LocalDateTime.now());
+        session = uploadSessionRepository.save(session);
+
+        // Sparse preallocation, so chunks can land at any position
+        try {
+            Files.createDirectories(partialDir);
+            try (RandomAccessFile file = new RandomAccessFile(partialPath(session.getId()).toFile(), "rw")) {
+                file.setLength(request.getSize());
+            }
+        } catch (IOException e) {
+            uploadSessionRepository.deleteById(session.getId());
+            throw new RuntimeException("Could not create upload", e);
+        }
+
+        return toResponse(session);
+    }
+
+    public UploadSessionResponse getSession(String uploadId, String userId) {
+        return toResponse(findOwned(uploadId, userId));
+    }
+
+    /**
+     * Writes one chunk described by a "bytes start-end/total" Content-Range header.
+     */
+    public UploadSessionResponse writeChunk(String uploadId, String userId, String contentRange, InputStream body) {
+        UploadSession session = findOwned(uploadId, userId);
+        if (!UploadSession.ACTIVE.equals(session.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is " + session.getStatus());
+        }
+
+        Matcher matcher = contentRange != null ? CONTENT_RANGE.matcher(contentRange.trim()) : null;
+        if (matcher == null || !matcher.matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Content-Range must be 'bytes start-end/total'");
+        }
+        long start = Long.parseLong(matcher.group(1));
+        long end = Long.parseLong(matcher.group(2)) + 1;
+        long total = Long.parseLong(matcher.group(3));
+        if (total != session.getSize() || start >= end || end > total) {
+            throw new ResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "Range outside of upload");
+        }
+
+        long written;
+        try (FileChannel channel = FileChannel.open(partialPath(uploadId), StandardOpenOption.WRITE)) {
+            written = transfer(body, channel, start, end - start);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk upload interrupted", e);
+        }
+        if (written != end - start) {
+            // The bytes that did arrive are not recorded; the client re-sends the whole range
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Expected " + (end - start) + " bytes but received " + written);
+        }
+
+        UploadSession updated = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(uploadId).and("status").is(UploadSession.ACTIVE)),
+                new Update()
+                        .push("receivedRanges", new UploadSession.ByteRange(start, end))
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                UploadSession.class);
+        if (updated == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload was finalized or cancelled");
+        }
+        return toResponse(updated);
+    }
+
+    /**
+     * Moves the assembled file into the media store once every byte has arrived.
+     */
+    public UploadSessionResponse complete(String uploadId, String userId) {
+        UploadSession session = findOwned(uploadId, userId);
+        if (UploadSession.COMPLETE.equals(session.getStatus())) {
+            return toResponse(session);
+        }
+        if (!missingRanges(session).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is missing byte ranges");
+        }
+
+        // Only one finalize call may move the file
+        UploadSession claimed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(uploadId).and("status").is(UploadSession.ACTIVE)),
+                new Update().set("status", UploadSession.FINALIZING).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                UploadSession.class);
+        if (claimed == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is already being finalized");
+        }
+
+        String key = blobStore.adopt(partialPath(uploadId), extensionOf(session.getFileName()));
+        claimed.setStatus(UploadSession.COMPLETE);
+        claimed.setMediaUrl(FileStorageService.MEDIA_PREFIX + key);
+        claimed.setUpdatedAt(LocalDateTime.now());
+        return toResponse(uploadSessionRepository.save(claimed));
+    }
+
+    public void abort(String uploadId, String userId) {
+        UploadSession session = findOwned(uploadId, userId);
+        discard(session);
+    }
+
+    /**
+     * Hands a completed upload over to a post and returns its media URL. The session is consumed,
+     * so the post now owns the store reference.
+     */
+    public String claimForPost(String uploadId, String userId) {
+        UploadSession session = mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(uploadId)
+                        .and("userId").is(userId)
+                        .and("status").is(UploadSession.COMPLETE)),
+                UploadSession.class);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No completed upload " + uploadId);
+        }
+        return session.getMediaUrl();
+    }
+
+    // Abandoned sessions (never finished, or finished but never attached) are dropped after the TTL
+    @Scheduled(fixedDelayString = "${upload.sessions.gc-interval-ms:600000}")
+    public void collectAbandoned() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofHours(ttlHours));
+        int removed = 0;
+        List<UploadSession> expired;
+        do {
+            expired = uploadSessionRepository.findTop100ByUpdatedAtBefore(cutoff);
+            for (UploadSession session : expired) {
+                discard(session);
+                removed++;
+            }
+        } while (expired.size() == 100);
+
+        if (removed > 0) {
+            log.info("Removed {} abandoned upload sessions", removed);
+        }
+    }
+
+    private void discard(UploadSession session) {
+        // findAndRemove so a concurrent claimForPost and the GC can't both win
+        UploadSession removed = mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("_id").is(session.getId()).and("status").is(session.getStatus())),
+                UploadSession.class);
+        if (removed == null) {
+            return;
+        }
+        if (removed.getMediaUrl() != null) {
+            blobStore.release(removed.getMediaUrl().substring(FileStorageService.MEDIA_PREFIX.length()));
+        }
+        try {
+            Files.deleteIfExists(partialPath(removed.getId()));
+        } catch (IOException e) {
+            log.warn("Could not delete partial upload {}: {}", removed.getId(), e.getMessage());
+        }
+    }
+
+    // Positional writes never move a shared file pointer, so concurrent chunks don't interfere
+    private long transfer(InputStream in, FileChannel channel, long position, long length) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        while (written < length) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, length - written));
+            if (read == -1) {
+                break;
+            }
+            ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+            while (chunk.hasRemaining()) {
+                channel.write(chunk, position + written + (read - chunk.remaining()));
+            }
+            written += read;
+        }
+        return written;
+    }
+
+    private UploadSession findOwned(String uploadId, String userId) {
+        UploadSession session = uploadSessionRepository.findById(uploadId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+        if (!session.getUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+        return session;
+    }
+
+    private Path partialPath(String uploadId) {
+        return partialDir.resolve(uploadId + ".part");
+    }
+
+    // Gaps between the merged received ranges, as [start, end) pairs
+    private static List<long[]> missingRanges(UploadSession session) {
+        List<UploadSession.ByteRange> ranges = new ArrayList<>(session.getReceivedRanges());
+        ranges.sort(Comparator.comparingLong(UploadSession.ByteRange::getStart));
+
+        List<long[]> missing = new ArrayList<>();
+        long covered = 0;
+        for (UploadSession.ByteRange range : ranges) {
+            if (range.getStart() > covered) {
+                missing.add(new long[]{covered, range.getStart()});
+            }
+            covered = Math.max(covered, range.getEnd());
+        }
+        if (covered < session.getSize()) {
+            missing.add(new long[]{covered, session.getSize()});
+        }
+        return missing;
+    }
+
+    private static UploadSessionResponse toResponse(UploadSession session) {
+        List<long[]> missing = UploadSession.COMPLETE.equals(session.getStatus()) ? List.of() : missingRanges(session);
+        long missingBytes = missing.stream().mapToLong(range -> range[1] - range[0]).sum();
+        long offset = missing.isEmpty() ? session.getSize() : missing.get(0)[0];
+
+        return UploadSessionResponse.builder()
+                .uploadId(session.getId())
+                .fileName(session.getFileName())
+                .size(session.getSize())
+                .offset(offset)
+                .receivedBytes(session.getSize() - missingBytes)
+                .missingRanges(missing)
+                .status(session.getStatus())
+                .build();
+    }
+
+    private static String extensionOf(String fileName) {
+        int idx = fileName.lastIndexOf('.');
+        return idx > 0 ? fileName.substring(idx + 1) : "";
+    }
+}
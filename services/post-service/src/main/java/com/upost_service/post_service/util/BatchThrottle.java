@@ -0,0 +1,35 @@
+package com.upost_service.post_service.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Back-off for background jobs that work through Mongo in batches: after a batch that ran
+ * slower than the per-item latency target, sleeps in proportion to the overshoot so the job
+ * yields to live traffic.
+ */
+@Slf4j
+public final class BatchThrottle {
+
+    private BatchThrottle() {
+    }
+
+    /**
+     * Pauses after a slow batch of the given number of items. Returns false if the thread was
+     * interrupted, in which case the job should stop here.
+     */
+    public static boolean pauseIfSlow(String job, long elapsedMs, int items, long targetLatencyMs, long maxPauseMs) {
+        long perItemMs = elapsedMs / Math.max(1, items);
+        if (perItemMs <= targetLatencyMs) {
+            return true;
+        }
+        long pause = Math.min(maxPauseMs, elapsedMs * perItemMs / Math.max(1, targetLatencyMs));
+        log.debug("{} batch took {}ms ({}ms/item), pausing {}ms", job, elapsedMs, perItemMs, pause);
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
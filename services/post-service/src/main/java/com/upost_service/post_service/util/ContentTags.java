@@ -0,0 +1,58 @@
+package com.upost_service.post_service.util;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts #hashtags and @mentions from post text, lowercased and without the prefix.
+ */
+public final class ContentTags {
+
+    // A tag starts after whitespace or punctuation, so "a#b" and e-mail addresses don't count
+    private static final Pattern HASHTAG = Pattern.compile("(?<![\\p{L}\\p{N}_#])#([\\p{L}\\p{N}_]{1,100})");
+    private static final Pattern MENTION = Pattern.compile("(?<![\\p{L}\\p{N}_@.])@([\\p{L}\\p{N}_.]{1,50})");
+
+    private ContentTags() {
+    }
+
+    public static Set<String> hashtags(String content) {
+        return extract(HASHTAG, content);
+    }
+
+    public static Set<String> mentions(String content) {
+        return extract(MENTION, content);
+    }
+
+    /**
+     * Normalizes a user-supplied tag filter, accepting it with or without the prefix.
+     */
+    public static String normalize(String tag) {
+        String trimmed = tag.trim();
+        if (trimmed.startsWith("#") || trimmed.startsWith("@")) {
+            trimmed = trimmed.substring(1);
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> extract(Pattern pattern, String content) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (content == null) {
+            return tags;
+        }
+        Matcher matcher = pattern.matcher(content);
+        while (matcher.find()) {
+            String tag = matcher.group(1);
+            // A mention may not end with a dot ("thanks @bob." mentions bob)
+            while (tag.endsWith(".")) {
+                tag = tag.substring(0, tag.length() - 1);
+            }
+            if (!tag.isEmpty()) {
+                tags.add(tag.toLowerCase(Locale.ROOT));
+            }
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,142 @@
+package com.upost_service.post_service.benchmark;
+
+import com.upost_service.post_service.model.Post;
+import com.upost_service.post_service.model.PostSummary;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Bytes Mongo returns for one 20-post feed page: the full documents the list endpoints used to
+ * load versus the PostSummary projection they load now. Documents are encoded with the
+ * application's own mapping and the projection applied as the server would, so no database is needed.
+ * Run main() after mvn test-compile.
+ */
+public class FeedPageBytesBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final DocumentCodec CODEC = new DocumentCodec();
+
+    public static void main(String[] args) {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        Random random = new Random(7);
+
+        System.out.printf("%-40s %14s %14s %8s%n", "Feed page (20 posts)", "full bytes", "summary bytes", "saved");
+        report("migrated, 1 image, 3 recent comments", converter, random, 0, 0);
+        report("legacy, 200 likers, 50 comments", converter, random, 200, 50);
+        report("legacy, 5000 likers, 800 comments", converter, random, 5000, 800);
+    }
+
+    private static void report(String label, MappingMongoConverter converter, Random random,
+                               int legacyLikers, int legacyComments) {
+        long full = 0;
+        long summary = 0;
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Document document = new Document();
+            converter.write(post(random), document);
+            // Documents written before the likes/comments migrations still carry the embedded arrays
+            if (legacyLikers > 0) {
+                document.put("likes", legacyLikers(random, legacyLikers));
+                document.put("comments", legacyComments(converter, random, legacyComments));
+            }
+            full += size(document);
+            summary += size(project(document, Document.parse(PostSummary.PROJECTION)));
+        }
+        System.out.printf("%-40s %14d %14d %7.1f%%%n", label, full, summary, 100.0 * (full - summary) / full);
+    }
+
+    private static Post post(Random random) {
+        Post post = new Post();
+        post.setId(new ObjectId().toHexString());
+        post.setUserId(new ObjectId().toHexString());
+        post.setUsername("user" + random.nextInt(100_000));
+        post.setUserProfilePicture("/files/media/" + "a".repeat(64) + ".jpg");
+        post.setContent("Weekend hike with the crew #outdoors #hiking @friend " + "lorem ipsum ".repeat(8));
+
+        Post.ImageVariant variant = new Post.ImageVariant();
+        variant.setOriginal("/uploads/media/" + "b".repeat(64) + ".jpg");
+        variant.setMedium("/uploads/media/" + "c".repeat(64) + ".jpg");
+        variant.setThumbnail("/uploads/media/" + "d".repeat(64) + ".jpg");
+        variant.setWidth(4032);
+        variant.setHeight(3024);
+        post.setImages(List.of(variant.getOriginal()));
+        post.setImageVariants(List.of(variant));
+
+        post.setLikesCount(random.nextInt(5000));
+        post.setCommentsCount(random.nextInt(800));
+        for (int c = 0; c < 3; c++) {
+            post.getRecentComments().add(comment(random));
+        }
+        post.setCreatedAt(LocalDateTime.now().minusMinutes(random.nextInt(10_000)));
+        post.setUpdatedAt(LocalDateTime.now());
+        return post;
+    }
+
+    private static Post.Comment comment(Random random) {
+        Post.Comment comment = new Post.Comment();
+        comment.setUserId(new ObjectId().toHexString());
+        comment.setUsername("user" + random.nextInt(100_000));
+        comment.setUserProfilePicture("/files/media/" + "e".repeat(64) + ".jpg");
+        comment.setContent("Looks great! " + "nice ".repeat(random.nextInt(10)));
+        return comment;
+    }
+
+    private static List<String> legacyLikers(Random random, int count) {
+        List<String> likers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            likers.add(new ObjectId().toHexString());
+        }
+        return likers;
+    }
+
+    private static List<Document> legacyComments(MappingMongoConverter converter, Random random, int count) {
+        List<Document> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Document comment = new Document();
+            converter.write(comment(random), comment);
+            comments.add(comment);
+        }
+        return comments;
+    }
+
+    // Inclusion projection with $slice, as mongod applies it: _id plus the listed fields
+    @SuppressWarnings("unchecked")
+    private static Document project(Document source, Document projection) {
+        Document projected = new Document("_id", source.get("_id"));
+        for (Map.Entry<String, Object> field : projection.entrySet()) {
+            Object value = source.get(field.getKey());
+            if (value == null) {
+                continue;
+            }
+            if (field.getValue() instanceof Document operator && operator.containsKey("$slice")) {
+                int slice = ((Number) operator.get("$slice")).intValue();
+                List<Object> list = (List<Object>) value;
+                value = slice < 0
+                        ? list.subList(Math.max(0, list.size() + slice), list.size())
+                        : list.subList(0, Math.min(slice, list.size()));
+            }
+            projected.put(field.getKey(), value);
+        }
+        return projected;
+    }
+
+    private static long size(Document document) {
+        return new RawBsonDocument(document, CODEC).getByteBuffer().remaining();
+    }
+}
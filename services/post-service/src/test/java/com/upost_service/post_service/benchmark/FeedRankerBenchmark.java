@@ -0,0 +1,84 @@
+package com.upost_service.post_service.benchmark;
+
+import com.upost_service.post_service.config.FeedRankingProperties;
+import com.upost_service.post_service.service.FeedRanker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging 10k candidates (500 authors x 20 posts) into the top k of a ranked feed.
+ * Run main() after mvn test-compile, or org.openjdk.jmh.Main FeedRankerBenchmark on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedRankerBenchmark {
+
+    private static final int AUTHORS = 500;
+    private static final int POSTS_PER_AUTHOR = 20;
+
+    @Param({"20", "100", "1000"})
+    private int k;
+
+    private FeedRanker ranker;
+    private List<List<FeedRanker.Candidate>> candidates;
+    private Map<String, Long> affinity;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        ranker = new FeedRanker(new FeedRankingProperties());
+        now = LocalDateTime.now();
+        candidates = new ArrayList<>();
+        affinity = new HashMap<>();
+
+        Random random = new Random(42);
+        for (int a = 0; a < AUTHORS; a++) {
+            String author = "author-" + a;
+            List<FeedRanker.Candidate> posts = new ArrayList<>();
+            for (int p = 0; p < POSTS_PER_AUTHOR; p++) {
+                posts.add(new FeedRanker.Candidate(author + "-" + p, author,
+                        now.minusMinutes(random.nextInt(72 * 60)),
+                        random.nextInt(500), random.nextInt(50)));
+            }
+            candidates.add(posts);
+            if (random.nextInt(4) == 0) {
+                affinity.put(author, (long) random.nextInt(30));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<FeedRanker.Scored> topK() {
+        return ranker.topK(candidates, affinity, k, now);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FeedRankerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
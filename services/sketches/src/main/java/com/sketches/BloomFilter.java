@@ -0,0 +1,73 @@
+package com.sketches;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Set membership with no false negatives: mightContain is always true for an added item and
+ * true for an absent one with probability about expectedFpp(). Bits are set with CAS, so
+ * adds and lookups may run concurrently without locking.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashes;
+    private final AtomicLong bitCount = new AtomicLong();
+
+    private BloomFilter(long bitSize, int hashes) {
+        this.bits = new AtomicLongArray((int) ((bitSize + 63) >>> 6));
+        this.bitSize = (long) bits.length() << 6;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Sized for expectedInsertions items at a false-positive probability of fpp.
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(m, k);
+    }
+
+    public void put(String item) {
+        long hash = Hashing.hash64(item);
+        for (int i = 0; i < hashes; i++) {
+            setBit(Hashing.index(hash, i, bitSize));
+        }
+    }
+
+    public boolean mightContain(String item) {
+        long hash = Hashing.hash64(item);
+        for (int i = 0; i < hashes; i++) {
+            long index = Hashing.index(hash, i, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Probability that an absent item is reported present at the current fill
+    public double expectedFpp() {
+        return Math.pow((double) bitCount.get() / bitSize, hashes);
+    }
+
+    public long sizeInBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        bitCount.incrementAndGet();
+    }
+}
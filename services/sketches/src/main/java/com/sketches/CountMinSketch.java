@@ -0,0 +1,54 @@
+package com.sketches;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size frequency estimator: counts never go below the true value and overshoot by
+ * at most about 2 * total / width with high probability. Plain (non-conservative) updates
+ * keep sketches linear, so one can be subtracted from another.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[][] table;
+
+    public CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = width;
+        this.table = new long[depth][width];
+    }
+
+    public void add(String item, long count) {
+        long hash = Hashing.hash64(item);
+        for (int row = 0; row < depth; row++) {
+            table[row][(int) Hashing.index(hash, row, width)] += count;
+        }
+    }
+
+    public long estimate(String item) {
+        long hash = Hashing.hash64(item);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[row][(int) Hashing.index(hash, row, width)]);
+        }
+        return min;
+    }
+
+    /**
+     * Removes everything counted by other, which must have the same dimensions.
+     */
+    public void subtract(CountMinSketch other) {
+        for (int row = 0; row < depth; row++) {
+            for (int col = 0; col < width; col++) {
+                table[row][col] -= other.table[row][col];
+            }
+        }
+    }
+
+    public void clear() {
+        for (long[] row : table) {
+            Arrays.fill(row, 0);
+        }
+    }
+}
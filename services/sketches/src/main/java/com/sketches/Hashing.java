@@ -0,0 +1,38 @@
+package com.sketches;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The hashing shared by the sketches: one well-mixed 64-bit hash per item, from which any
+ * number of table indexes are derived.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    // 64-bit FNV-1a followed by a murmur finalizer, so similar strings spread across the table
+    public static long hash64(String item) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : item.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * The i-th index in [0, size) for a hash, after Kirsch-Mitzenmacher: h1 + i * h2 over the
+     * two halves of the 64-bit hash behaves like i independent hash functions.
+     */
+    public static long index(long hash, int i, long size) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + (long) i * h2, size);
+    }
+}
@@ -0,0 +1,71 @@
+package com.sketches;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void addedItemsAreAlwaysReportedPresent() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / probes;
+        assertTrue(observed < 0.02, "observed fpp " + observed);
+        assertTrue(Math.abs(filter.expectedFpp() - 0.01) < 0.005, "expected fpp " + filter.expectedFpp());
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        assertFalse(filter.mightContain("anyone"));
+    }
+
+    @Test
+    void concurrentPutsLoseNoBits() throws InterruptedException {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    filter.put("user" + thread + "-" + i);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        for (int t = 0; t < 8; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(filter.mightContain("user" + t + "-" + i));
+            }
+        }
+    }
+}
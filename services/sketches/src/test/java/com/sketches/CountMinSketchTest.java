@@ -0,0 +1,62 @@
+package com.sketches;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+    @Test
+    void neverUnderestimatesAndStaysWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(4, 2048);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        long total = 0;
+        for (int i = 0; i < 50_000; i++) {
+            // Skewed, like hashtags: a few heavy items and a long tail
+            String tag = "tag" + (int) Math.abs(random.nextGaussian() * 500);
+            sketch.add(tag, 1);
+            exact.merge(tag, 1L, Long::sum);
+            total++;
+        }
+
+        // e * total / width is exceeded with probability e^-depth (under 2%) per item
+        double bound = Math.E * total / 2048;
+        int overBound = 0;
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), entry.getKey());
+            if (estimate - entry.getValue() > bound) {
+                overBound++;
+            }
+        }
+        assertTrue(overBound <= exact.size() * 0.05, overBound + " of " + exact.size() + " over the bound");
+    }
+
+    @Test
+    void subtractRemovesExactlyWhatTheOtherCounted() {
+        CountMinSketch window = new CountMinSketch(4, 256);
+        CountMinSketch expired = new CountMinSketch(4, 256);
+        window.add("java", 5);
+        window.add("kotlin", 2);
+        expired.add("java", 3);
+
+        window.subtract(expired);
+
+        assertEquals(2, window.estimate("java"));
+        assertEquals(2, window.estimate("kotlin"));
+    }
+
+    @Test
+    void clearResetsEveryCount() {
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+        sketch.add("java", 7);
+        sketch.clear();
+        assertEquals(0, sketch.estimate("java"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.user_service.user_service.Model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One follow edge: followerId follows followeeId. The unique pair index answers
+ * "does A follow B" with a single index lookup; the other two serve the newest-first
+ * following and followers pages, with the edge _id as keyset cursor.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "follows")
+@CompoundIndexes({
+        @CompoundIndex(name = "follower_followee_unique_index", def = "{'followerId': 1, 'followeeId': 1}", unique = true),
+        @CompoundIndex(name = "follower_page_index", def = "{'followerId': 1, '_id': -1}"),
+        @CompoundIndex(name = "followee_page_index", def = "{'followeeId': 1, '_id': -1}")
+})
+public class Follow {
+    @Id
+    private String id;
+    private String followerId;
+    private String followeeId;
+    private LocalDateTime createdAt;
+
+    public Follow(String followerId, String followeeId) {
+        this.followerId = followerId;
+        this.followeeId = followeeId;
+        this.createdAt = LocalDateTime.now();
+    }
+}
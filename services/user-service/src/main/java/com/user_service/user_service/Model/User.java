@@ -5,8 +5,6 @@ import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
 
 @Document(collection = "Users")
 public class User {
@@ -25,8 +23,9 @@ public class User {
     private String profilePicture;
     private String coverPicture;
 
-    private Set<String> followers = new HashSet<>();
-    private Set<String> following = new HashSet<>();
+    // Maintained with $inc alongside the edges in the follows collection
+    private int followersCount;
+    private int followingCount;
 
     private boolean isActive = true;
     private boolean isVerified = false;
@@ -101,20 +100,20 @@ public class User {
         this.coverPicture = coverPicture;
     }
 
-    public Set<String> getFollowers() {
-        return followers;
+    public int getFollowersCount() {
+        return followersCount;
     }
 
-    public void setFollowers(Set<String> followers) {
-        this.followers = followers;
+    public void setFollowersCount(int followersCount) {
+        this.followersCount = followersCount;
     }
 
-    public Set<String> getFollowing() {
-        return following;
+    public int getFollowingCount() {
+        return followingCount;
     }
 
-    public void setFollowing(Set<String> following) {
-        this.following = following;
+    public void setFollowingCount(int followingCount) {
+        this.followingCount = followingCount;
     }
 
     public boolean isActive() {
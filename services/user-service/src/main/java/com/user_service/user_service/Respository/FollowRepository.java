@@ -0,0 +1,27 @@
+package com.user_service.user_service.Respository;
+
+import com.user_service.user_service.Model.Follow;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
+
+public interface FollowRepository extends MongoRepository<Follow, String> {
+    boolean existsByFollowerIdAndFolloweeId(String followerId, String followeeId);
+
+    long deleteByFollowerIdAndFolloweeId(String followerId, String followeeId);
+
+    @Query(value = "{ 'followeeId': ?0 }", fields = "{ 'followerId': 1 }", sort = "{ '_id': -1 }")
+    List<Follow> findFollowers(String userId, Pageable pageable);
+
+    @Query(value = "{ 'followeeId': ?0, '_id': { $lt: ?1 } }", fields = "{ 'followerId': 1 }", sort = "{ '_id': -1 }")
+    List<Follow> findFollowersBefore(String userId, ObjectId before, Pageable pageable);
+
+    @Query(value = "{ 'followerId': ?0 }", fields = "{ 'followeeId': 1 }", sort = "{ '_id': -1 }")
+    List<Follow> findFollowing(String userId, Pageable pageable);
+
+    @Query(value = "{ 'followerId': ?0, '_id': { $lt: ?1 } }", fields = "{ 'followeeId': 1 }", sort = "{ '_id': -1 }")
+    List<Follow> findFollowingBefore(String userId, ObjectId before, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.user_service.user_service.config;
+
+import com.media_blob_store.BlobStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@Configuration
+public class BlobStoreConfig {
+
+    @Bean
+    public BlobStore blobStore(MongoTemplate mongoTemplate, @Value("${file.upload-dir}/media") String root) {
+        return new BlobStore(mongoTemplate, root, "user_media_blobs");
+    }
+}
@@ -0,0 +1,193 @@
+package com.user_service.user_service.config;
+
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.user_service.user_service.Model.Follow;
+import com.user_service.user_service.Model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Moves the legacy embedded User.followers/User.following sets into follow edges, then
+ * recomputes every user's counters from the edges. Edges are upserted on the unique
+ * (followerId, followeeId) pair, so an interrupted run can simply be restarted; a
+ * user's sets are only unset once their edges are written.
+ * Also creates the follows indexes, which user-service does not auto-create. Repeated
+ * follows made before the unique index existed are collapsed to the oldest edge first.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FollowMigrationRunner implements ApplicationRunner {
+
+    private static final String UNIQUE_INDEX = "follower_followee_unique_index";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${migration.follows.enabled:true}")
+    private boolean enabled;
+
+    @Value("${migration.follows.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int migrated = enabled ? migrateEmbeddedSets() : 0;
+
+        int removed = 0;
+        if (!hasIndex(UNIQUE_INDEX)) {
+            removed = removeDuplicateEdges();
+        }
+        IndexOperations indexOps = mongoTemplate.indexOps(Follow.class);
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(Follow.class)
+                .forEach(indexOps::ensureIndex);
+
+        if (migrated > 0 || removed > 0) {
+            recount("followerId", "followingCount");
+            recount("followeeId", "followersCount");
+        }
+        if (migrated > 0) {
+            log.info("Migrated embedded follower sets of {} users into follows", migrated);
+        }
+        if (removed > 0) {
+            log.info("Removed {} duplicate follow edges", removed);
+        }
+    }
+
+    private int migrateEmbeddedSets() {
+        String collection = mongoTemplate.getCollectionName(User.class);
+        int migrated = 0;
+
+        try (MongoCursor<Document> cursor = mongoTemplate.getCollection(collection)
+                .find(Filters.or(Filters.exists("followers"), Filters.exists("following")))
+                .projection(Projections.include("_id", "followers", "following"))
+                .batchSize(batchSize)
+                .iterator()) {
+
+            while (cursor.hasNext()) {
+                Document legacy = cursor.next();
+                String userId = legacy.get("_id").toString();
+
+                // Both sides are written, so edges survive even where the two sets disagreed
+                EdgeWriter edges = new EdgeWriter();
+                for (String followeeId : legacy.getList("following", String.class, List.of())) {
+                    edges.add(userId, followeeId);
+                }
+                for (String followerId : legacy.getList("followers", String.class, List.of())) {
+                    edges.add(followerId, userId);
+                }
+                edges.flush();
+
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(legacy.get("_id"))),
+                        new Update().unset("followers").unset("following"), User.class);
+                migrated++;
+            }
+        }
+
+        return migrated;
+    }
+
+    private boolean hasIndex(String name) {
+        return mongoTemplate.indexOps(Follow.class).getIndexInfo().stream()
+                .anyMatch(index -> name.equals(index.getName()));
+    }
+
+    // Keeps the oldest edge of every (followerId, followeeId) pair
+    private int removeDuplicateEdges() {
+        Aggregation duplicates = Aggregation.newAggregation(
+                        Aggregation.sort(Sort.Direction.ASC, "_id"),
+                        Aggregation.group("followerId", "followeeId").push("_id").as("ids").count().as("count"),
+                        Aggregation.match(Criteria.where("count").gt(1)))
+                .withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+
+        int removed = 0;
+        List<Object> extra = new ArrayList<>();
+        try (Stream<Document> groups = mongoTemplate.aggregateStream(duplicates, Follow.class, Document.class)) {
+            for (Document group : (Iterable<Document>) groups::iterator) {
+                List<Object> ids = group.getList("ids", Object.class);
+                extra.addAll(ids.subList(1, ids.size()));
+                if (extra.size() >= batchSize) {
+                    removed += removeEdges(extra);
+                    extra.clear();
+                }
+            }
+        }
+        if (!extra.isEmpty()) {
+            removed += removeEdges(extra);
+        }
+        return removed;
+    }
+
+    private int removeEdges(List<Object> ids) {
+        return (int) mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), Follow.class).getDeletedCount();
+    }
+
+    // Sets counterField on every user from the edge count grouped by edgeField
+    private void recount(String edgeField, String counterField) {
+        mongoTemplate.updateMulti(new Query(), new Update().set(counterField, 0), User.class);
+
+        Aggregation counts = Aggregation.newAggregation(Aggregation.group(edgeField).count().as("count"))
+                .withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        int pending = 0;
+        try (Stream<Document> groups = mongoTemplate.aggregateStream(counts, Follow.class, Document.class)) {
+            for (Document group : (Iterable<Document>) groups::iterator) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(group.get("_id"))),
+                        new Update().set(counterField, group.getInteger("count")));
+                if (++pending == batchSize) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+    }
+
+    private final class EdgeWriter {
+        private BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Follow.class);
+        private int pending;
+
+        void add(String followerId, String followeeId) {
+            if (followerId == null || followerId.equals(followeeId)) {
+                return;
+            }
+            bulk.upsert(Query.query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId)),
+                    new Update().setOnInsert("createdAt", LocalDateTime.now()));
+            if (++pending == batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending > 0) {
+                bulk.execute();
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Follow.class);
+                pending = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.user_service.user_service.config;
+
+import com.user_service.user_service.Model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes declared on User, including the unique username and email indexes
+ * that decide concurrent signups; user-service does not auto-create indexes.
+ * A no-op once they exist.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserIndexRunner implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        IndexOperations indexOps = mongoTemplate.indexOps(User.class);
+        try {
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(User.class)
+                    .forEach(indexOps::ensureIndex);
+        } catch (Exception e) {
+            // Existing duplicate usernames/emails; register() still checks Mongo before saving
+            log.error("❌ Could not create users indexes: {}", e.getMessage());
+        }
+    }
+}
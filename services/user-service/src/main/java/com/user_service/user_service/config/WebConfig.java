@@ -2,8 +2,14 @@ package com.user_service.user_service.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.io.IOException;
+import java.time.Duration;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -13,6 +19,22 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Content-addressed files: "/files/media/<sha256>.<ext>" is stored sharded as "media/ab/cd/<sha256>.<ext>"
+        registry.addResourceHandler("/files/media/**")
+                .addResourceLocations("file:" + uploadDir + "/media/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new PathResourceResolver() {
+                    @Override
+                    protected Resource getResource(String resourcePath, Resource location) throws IOException {
+                        if (resourcePath.length() < 5 || resourcePath.contains("/")) {
+                            return null;
+                        }
+                        String sharded = resourcePath.substring(0, 2) + "/" + resourcePath.substring(2, 4) + "/" + resourcePath;
+                        return super.getResource(sharded, location);
+                    }
+                });
+
         registry.addResourceHandler("/files/**")
                 .addResourceLocations("file:" + uploadDir + "/");
     }
@@ -1,6 +1,12 @@
 package com.user_service.user_service.controller;
 
+import com.user_service.user_service.dto.CursorPage;
+import com.user_service.user_service.dto.GraphQueryResponse;
+import com.user_service.user_service.dto.PresenceResponse;
 import com.user_service.user_service.dto.UserDTO;
+import com.user_service.user_service.service.FollowService;
+import com.user_service.user_service.service.PresenceService;
+import com.user_service.user_service.service.SocialGraphIndex;
 import com.user_service.user_service.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -16,6 +23,9 @@ import java.util.List;
 public class InternalUserController {
 
     private final UserService userService;
+    private final FollowService followService;
+    private final SocialGraphIndex socialGraphIndex;
+    private final PresenceService presenceService;
 
     /**
      * Get user by ID
@@ -75,7 +85,7 @@ public class InternalUserController {
         log.info("→ Getting following list for user: {}", userId);
 
         try {
-            List<String> following = userService.getUserFollowing(userId);
+            List<String> following = followService.getAllFollowingIds(userId);
             log.info("✓ User follows {} people", following.size());
             return ResponseEntity.ok(following);
         } catch (Exception e) {
@@ -83,4 +93,131 @@ public class InternalUserController {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Get user's followers list
+     * Unbounded; callers that may meet large accounts use /followers/page
+     */
+    @GetMapping("/{userId}/followers")
+    public ResponseEntity<List<String>> getUserFollowers(@PathVariable String userId) {
+        log.info("→ Getting followers list for user: {}", userId);
+
+        try {
+            List<String> followers = followService.getAllFollowerIds(userId);
+            log.info("✓ User has {} followers", followers.size());
+            return ResponseEntity.ok(followers);
+        } catch (Exception e) {
+            log.error("✗ Error: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * One page of a user's followers' IDs, newest first
+     * Called by: Post Service for timeline fan-out, page by page
+     */
+    @GetMapping("/{userId}/followers/page")
+    public ResponseEntity<CursorPage<String>> getUserFollowersPage(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "500") int size) {
+        return ResponseEntity.ok(followService.getFollowerIds(userId, cursor, size));
+    }
+
+    /**
+     * One page of the IDs a user follows, newest first
+     * Called by: Post Service to load a reader's following set for the feed
+     */
+    @GetMapping("/{userId}/following/page")
+    public ResponseEntity<CursorPage<String>> getUserFollowingPage(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "500") int size) {
+        return ResponseEntity.ok(followService.getFollowingIds(userId, cursor, size));
+    }
+
+    /**
+     * Does followerId follow followeeId
+     */
+    @GetMapping("/{followerId}/follows/{followeeId}")
+    public ResponseEntity<Boolean> isFollowing(@PathVariable String followerId, @PathVariable String followeeId) {
+        return ResponseEntity.ok(followService.isFollowing(followerId, followeeId));
+    }
+
+    /**
+     * Graph queries below are answered from the in-memory index, not Mongo;
+     * 503 until it has been built. limit caps the IDs returned, count is always exact.
+     */
+    @GetMapping("/graph/{followerId}/follows/{followeeId}")
+    public ResponseEntity<Boolean> graphFollows(@PathVariable String followerId, @PathVariable String followeeId) {
+        return ResponseEntity.ok(socialGraphIndex.follows(followerId, followeeId));
+    }
+
+    @GetMapping("/graph/{userId}/mutuals")
+    public ResponseEntity<GraphQueryResponse> getMutuals(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(socialGraphIndex.mutuals(userId, limit));
+    }
+
+    /**
+     * Which of userId's followings also follow targetId
+     */
+    @GetMapping("/graph/{userId}/followed-by/{targetId}")
+    public ResponseEntity<GraphQueryResponse> getFollowedByFollowing(
+            @PathVariable String userId,
+            @PathVariable String targetId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(socialGraphIndex.followedByFollowing(userId, targetId, limit));
+    }
+
+    @GetMapping("/graph/common-followers")
+    public ResponseEntity<GraphQueryResponse> getCommonFollowers(
+            @RequestParam String a,
+            @RequestParam String b,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(socialGraphIndex.commonFollowers(a, b, limit));
+    }
+
+    @GetMapping("/graph/common-following")
+    public ResponseEntity<GraphQueryResponse> getCommonFollowing(
+            @RequestParam String a,
+            @RequestParam String b,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(socialGraphIndex.commonFollowing(a, b, limit));
+    }
+
+    /**
+     * Online status and lastSeen for each id
+     * Called by: Message Service when listing conversations
+     */
+    @PostMapping("/presence")
+    public ResponseEntity<Map<String, PresenceResponse>> getPresence(@RequestBody List<String> userIds) {
+        return ResponseEntity.ok(presenceService.getPresence(userIds));
+    }
+
+    /**
+     * Users seen making requests since the last report
+     * Called by: API Gateway, batched every few seconds
+     */
+    @PostMapping("/presence/activity")
+    public ResponseEntity<Void> recordActivity(@RequestBody List<String> userIds) {
+        presenceService.recordActivity(userIds);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Called by: Message Service on WebSocket connect and disconnect
+     */
+    @PostMapping("/presence/{userId}/connected")
+    public ResponseEntity<Void> connected(@PathVariable String userId) {
+        presenceService.connected(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/presence/{userId}/disconnected")
+    public ResponseEntity<Void> disconnected(@PathVariable String userId) {
+        presenceService.disconnected(userId);
+        return ResponseEntity.noContent().build();
+    }
+}
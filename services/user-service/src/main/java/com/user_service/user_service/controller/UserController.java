@@ -1,15 +1,23 @@
 package com.user_service.user_service.controller;
 
+import com.user_service.user_service.dto.AvailabilityResponse;
+import com.user_service.user_service.dto.CursorPage;
 import com.user_service.user_service.dto.LoginRequest;
 import com.user_service.user_service.dto.RegisterRequest;
+import com.user_service.user_service.dto.SuggestionResponse;
 import com.user_service.user_service.dto.UpdateProfileRequest;
 import com.user_service.user_service.dto.UserDTO;
+import com.user_service.user_service.service.AvailabilityService;
+import com.user_service.user_service.service.FollowService;
 import com.user_service.user_service.service.JwtService;
+import com.user_service.user_service.service.PeopleYouMayKnowService;
 import com.user_service.user_service.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Map;
@@ -20,6 +28,9 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final FollowService followService;
+    private final PeopleYouMayKnowService peopleYouMayKnowService;
+    private final AvailabilityService availabilityService;
     private final JwtService jwtService;
 
     @PostMapping("/register")
@@ -27,6 +38,26 @@ public class UserController {
         return ResponseEntity.ok(userService.register(request));
     }
 
+    /**
+     * Signup form check; a free value is usually answered without touching Mongo
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        if (username == null && email == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "username or email is required");
+        }
+        AvailabilityResponse response = new AvailabilityResponse();
+        if (username != null) {
+            response.setUsernameAvailable(availabilityService.isUsernameAvailable(username));
+        }
+        if (email != null) {
+            response.setEmailAvailable(availabilityService.isEmailAvailable(email));
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest request) {
         return ResponseEntity.ok(userService.login(request  ));
@@ -42,7 +73,7 @@ public class UserController {
             @PathVariable String userId,
             @RequestHeader("Authorization") String token) {
         String currentUserId = extractUserIdFromToken(token);
-        userService.followUser(currentUserId, userId);
+        followService.follow(currentUserId, userId);
         return ResponseEntity.ok(Map.of("message", "Followed successfully"));
     }
 
@@ -51,10 +82,48 @@ public class UserController {
             @PathVariable String userId,
             @RequestHeader("Authorization") String token) {
         String currentUserId = extractUserIdFromToken(token);
-        userService.unfollowUser(currentUserId, userId);
+        followService.unfollow(currentUserId, userId);
         return ResponseEntity.ok(Map.of("message", "Unfollowed successfully"));
     }
 
+    @GetMapping("/follow/{userId}/status")
+    public ResponseEntity<?> followStatus(
+            @PathVariable String userId,
+            @RequestHeader("Authorization") String token) {
+        String currentUserId = extractUserIdFromToken(token);
+        return ResponseEntity.ok(Map.of("following", followService.isFollowing(currentUserId, userId)));
+    }
+
+    /**
+     * Newest followers first; pass nextCursor back as cursor for the next page
+     */
+    @GetMapping("/{userId}/followers")
+    public ResponseEntity<CursorPage<UserDTO>> getFollowers(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(followService.getFollowers(userId, cursor, size));
+    }
+
+    @GetMapping("/{userId}/following")
+    public ResponseEntity<CursorPage<UserDTO>> getFollowing(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(followService.getFollowing(userId, cursor, size));
+    }
+
+    /**
+     * People you may know: friends of friends, most mutual connections first
+     */
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<SuggestionResponse>> getSuggestions(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestHeader("Authorization") String token) {
+        String userId = extractUserIdFromToken(token);
+        return ResponseEntity.ok(peopleYouMayKnowService.getSuggestions(userId, limit));
+    }
+
     @PutMapping("/profile/update")
     public ResponseEntity<?> updateProfile(
             @RequestBody UpdateProfileRequest request,
@@ -0,0 +1,12 @@
+package com.user_service.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+// Only the fields that were asked about are present
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponse {
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+}
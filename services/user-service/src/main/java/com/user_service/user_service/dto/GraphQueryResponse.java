@@ -0,0 +1,18 @@
+package com.user_service.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a social graph set query: the full size of the set and up to limit of its user IDs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphQueryResponse {
+    private long count;
+    private List<String> userIds;
+}
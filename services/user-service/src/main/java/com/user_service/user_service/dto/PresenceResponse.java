@@ -0,0 +1,15 @@
+package com.user_service.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceResponse {
+    private boolean online;
+    private LocalDateTime lastSeen;  // null if the user has never been seen
+}
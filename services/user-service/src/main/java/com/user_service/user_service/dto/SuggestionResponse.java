@@ -0,0 +1,18 @@
+package com.user_service.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+    private String userId;
+    private String username;
+    private String fullName;
+    private String profilePicture;
+    private int mutualCount;  // accounts the viewer follows that follow this user
+}
@@ -0,0 +1,16 @@
+package com.user_service.user_service.event;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Presence changes one replica saw, replayed by the others; lists hold user ids
+@Data
+public class PresenceEvent {
+    private String origin;
+    private long at;  // epoch millis
+    private List<String> active = new ArrayList<>();
+    private List<String> connected = new ArrayList<>();
+    private List<String> disconnected = new ArrayList<>();
+}
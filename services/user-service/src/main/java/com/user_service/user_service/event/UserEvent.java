@@ -9,4 +9,8 @@ public class UserEvent {
     private String userId;
     private String username;
     private String targetUserId;
+    private String email;  // set on REGISTRATION
+    // Set on PROFILE_UPDATED: the user's current display fields
+    private String fullName;
+    private String profilePicture;
 }
\ No newline at end of file
@@ -36,13 +36,16 @@ public class SecurityConfig {
                     System.out.println("📋 Configuring authorization rules:");
                     System.out.println("  - Public: /api/users/register");
                     System.out.println("  - Public: /api/users/login");
+                    System.out.println("  - Public: /api/users/availability");
                     System.out.println("  - Public: /api/users/test/**");
                     System.out.println("  - Public: /api/users/internal/**");
+                    System.out.println("  - Public: /actuator/health");
 
                     auth
-                            .requestMatchers("/api/users/register", "/api/users/login").permitAll()
+                            .requestMatchers("/api/users/register", "/api/users/login", "/api/users/availability").permitAll()
                             .requestMatchers("/api/users/test/**").permitAll()
                             .requestMatchers("/api/users/internal/**").permitAll()
+                            .requestMatchers("/actuator/health").permitAll()
                             .anyRequest().authenticated();
                 })
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,150 @@
+package com.user_service.user_service.service;
+
+import com.sketches.BloomFilter;
+import com.user_service.user_service.Model.User;
+import com.user_service.user_service.event.UserEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.stream.Stream;
+
+/**
+ * Answers the signup form's "is this username/email taken?" mostly from memory. A Bloom filter holds every
+ * taken username and email: when it says absent the value is definitely free and Mongo is
+ * not asked; only a possible hit falls through to the unique-index lookup.
+ * Built by streaming the Users collection at startup and kept current from registrations
+ * here and REGISTRATION on user-events, which every replica consumes in its own group.
+ * Until the build finishes every check goes to Mongo. A replica learns other replicas'
+ * signups only through Kafka, so register() still checks Mongo and the unique indexes.
+ */
+@Service
+@Slf4j
+public class AvailabilityService {
+
+    public static final String USERNAME = "username";
+    public static final String EMAIL = "email";
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private volatile BloomFilter filter;
+    private volatile boolean ready;
+
+    private final Counter definitelyAbsent;
+    private final Counter falsePositives;
+
+    @Value("${availability.expected-insertions:2000000}")
+    private long expectedInsertions;
+
+    @Value("${availability.fpp:0.01}")
+    private double fpp;
+
+    public AvailabilityService(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.definitelyAbsent = Counter.builder("user.availability.filter.negatives")
+                .description("Checks answered available by the filter without a Mongo lookup")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("user.availability.filter.false.positives")
+                .description("Checks the filter passed to Mongo that turned out to be available")
+                .register(meterRegistry);
+        meterRegistry.gauge("user.availability.filter.observed.fpp", this, AvailabilityService::observedFpp);
+        meterRegistry.gauge("user.availability.filter.expected.fpp", this,
+                service -> service.filter != null ? service.filter.expectedFpp() : 0);
+        meterRegistry.gauge("user.availability.filter.size.bytes", this,
+                service -> service.filter != null ? service.filter.sizeInBytes() : 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.currentTimeMillis();
+        // Two keys per user, with headroom so the error rate holds as signups continue
+        long users = mongoTemplate.estimatedCount(User.class);
+        BloomFilter building = BloomFilter.create(Math.max(expectedInsertions, users * 4), fpp);
+
+        // Published before streaming, so registrations during the build land in it as well
+        filter = building;
+        Query all = new Query();
+        all.fields().include(USERNAME, EMAIL);
+        long added = 0;
+        try (Stream<User> stream = mongoTemplate.stream(all, User.class)) {
+            for (User user : (Iterable<User>) stream::iterator) {
+                add(building, user.getUsername(), user.getEmail());
+                added++;
+            }
+        }
+        ready = true;
+        log.info("🔎 Built availability filter: {} users, {} bytes in {} ms",
+                added, building.sizeInBytes(), System.currentTimeMillis() - started);
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        return isAvailable(USERNAME, username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        return isAvailable(EMAIL, email);
+    }
+
+    public void registered(String username, String email) {
+        BloomFilter current = filter;
+        if (current != null) {
+            add(current, username, email);
+        }
+    }
+
+    // Each replica listens in its own consumer group so every one of them learns every signup
+    @KafkaListener(topics = "user-events",
+            groupId = "${availability.group-id}",
+            properties = "auto.offset.reset=latest")
+    public void handleUserEvent(UserEvent event) {
+        if ("REGISTRATION".equals(event.getType())) {
+            registered(event.getUsername(), event.getEmail());
+        }
+    }
+
+    private boolean isAvailable(String field, String value) {
+        meterRegistry.counter("user.availability.checks", "field", field).increment();
+        BloomFilter current = filter;
+        if (ready && !current.mightContain(key(field, value))) {
+            definitelyAbsent.increment();
+            return true;
+        }
+
+        boolean taken = mongoTemplate.exists(Query.query(Criteria.where(field).is(value)), User.class);
+        if (!taken && ready) {
+            falsePositives.increment();
+        }
+        return !taken;
+    }
+
+    // Fraction of free values the filter failed to rule out; every filter negative is a true negative
+    private double observedFpp() {
+        double negatives = definitelyAbsent.count();
+        double positives = falsePositives.count();
+        return negatives + positives == 0 ? 0 : positives / (negatives + positives);
+    }
+
+    private static void add(BloomFilter filter, String username, String email) {
+        if (username != null) {
+            filter.put(key(USERNAME, username));
+        }
+        if (email != null) {
+            filter.put(key(EMAIL, email));
+        }
+    }
+
+    // One filter for both fields; the prefix keeps a username from matching an equal email
+    private static String key(String field, String value) {
+        return field + ':' + value;
+    }
+}
@@ -1,48 +1,50 @@
 package com.user_service.user_service.service;
 
+import com.media_blob_store.BlobStore;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
 
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
 
+    private final BlobStore blobStore;
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
     @Value("${file.base-url}")
     private String baseUrl;
 
+    // Stores each distinct file once; the URL is derived from its SHA-256 digest, so it never goes stale.
+    // The folder is kept for callers but no longer affects where the bytes live.
     public String uploadFile(MultipartFile file, String folder) {
-        try {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir, folder);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            Path filePath = uploadPath.resolve(fileName);
-
-            // Copy file to the target location
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Return the URL to access the file
-            return baseUrl + "/" + folder + "/" + fileName;
-
+        try (InputStream in = file.getInputStream()) {
+            String key = blobStore.store(in, getFileExtension(file.getOriginalFilename()));
+            return baseUrl + "/media/" + key;
         } catch (IOException e) {
             throw new RuntimeException("Failed to upload file", e);
         }
     }
 
     public void deleteFile(String fileUrl) {
+        if (!fileUrl.startsWith(baseUrl + "/")) {
+            return;  // not one of ours, e.g. an external avatar URL
+        }
+        String mediaPrefix = baseUrl + "/media/";
+        if (fileUrl.startsWith(mediaPrefix)) {
+            // Other users may have uploaded the same bytes; the store only deletes the last reference
+            blobStore.release(fileUrl.substring(mediaPrefix.length()));
+            return;
+        }
+
         try {
             String fileName = fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
             String folder = fileUrl.substring(baseUrl.length() + 1, fileUrl.lastIndexOf("/"));
@@ -53,4 +55,12 @@ public class FileStorageService {
             throw new RuntimeException("Failed to delete file", e);
         }
     }
-}
\ No newline at end of file
+
+    private String getFileExtension(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int idx = filename.lastIndexOf(".");
+        return (idx > 0) ? filename.substring(idx + 1) : "";
+    }
+}
@@ -0,0 +1,209 @@
+package com.user_service.user_service.service;
+
+import com.user_service.user_service.Model.Follow;
+import com.user_service.user_service.Model.User;
+import com.user_service.user_service.Respository.FollowRepository;
+import com.user_service.user_service.dto.CursorPage;
+import com.user_service.user_service.dto.UserDTO;
+import com.user_service.user_service.event.UserEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The social graph, stored as one document per follow edge in the follows collection.
+ * Following/follower counts live on User and move with $inc only when an edge is
+ * actually inserted or removed, so repeated follow/unfollow calls never skew them.
+ */
+@Service
+@Slf4j
+public class FollowService {
+
+    private static final String EVENT_TOPIC = "user-events";
+
+    private final FollowRepository followRepository;
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${follows.page.max-size:100}")
+    private int maxPageSize;
+
+    // Id-only pages for other services, e.g. post fan-out
+    @Value("${follows.page.internal-max-size:1000}")
+    private int internalMaxPageSize;
+
+    public FollowService(FollowRepository followRepository,
+                         MongoTemplate mongoTemplate,
+                         KafkaTemplate<String, Object> kafkaTemplate) {
+        this.followRepository = followRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public void follow(String currentUserId, String targetUserId) {
+        if (currentUserId.equals(targetUserId)) {
+            throw new RuntimeException("Cannot follow yourself");
+        }
+
+        User currentUser = findUser(currentUserId, "username");
+        if (currentUser == null) {
+            throw new RuntimeException("User not found");
+        }
+        if (!mongoTemplate.exists(Query.query(Criteria.where("_id").is(targetUserId)), User.class)) {
+            throw new RuntimeException("Target user not found");
+        }
+
+        try {
+            followRepository.insert(new Follow(currentUserId, targetUserId));
+        } catch (DuplicateKeyException e) {
+            return;  // already following; counters and followers were told the first time
+        }
+        adjustCounts(currentUserId, targetUserId, 1);
+
+        UserEvent event = new UserEvent();
+        event.setType(SocialGraphIndex.FOLLOW);
+        event.setUserId(currentUserId);
+        event.setUsername(currentUser.getUsername());
+        event.setTargetUserId(targetUserId);
+
+        // Keyed by follower so one user's follow/unfollow sequence stays in order for the graph index
+        kafkaTemplate.send(EVENT_TOPIC, currentUserId, event);
+    }
+
+    public void unfollow(String currentUserId, String targetUserId) {
+        if (followRepository.deleteByFollowerIdAndFolloweeId(currentUserId, targetUserId) > 0) {
+            adjustCounts(currentUserId, targetUserId, -1);
+
+            UserEvent event = new UserEvent();
+            event.setType(SocialGraphIndex.UNFOLLOW);
+            event.setUserId(currentUserId);
+            event.setTargetUserId(targetUserId);
+            kafkaTemplate.send(EVENT_TOPIC, currentUserId, event);
+        }
+    }
+
+    public boolean isFollowing(String followerId, String followeeId) {
+        return followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId);
+    }
+
+    public CursorPage<String> getFollowerIds(String userId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, internalMaxPageSize));
+        ObjectId before = parseCursor(cursor);
+        List<Follow> edges = before == null
+                ? followRepository.findFollowers(userId, PageRequest.of(0, limit + 1))
+                : followRepository.findFollowersBefore(userId, before, PageRequest.of(0, limit + 1));
+        return page(edges, limit, Follow::getFollowerId);
+    }
+
+    public CursorPage<String> getFollowingIds(String userId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, internalMaxPageSize));
+        ObjectId before = parseCursor(cursor);
+        List<Follow> edges = before == null
+                ? followRepository.findFollowing(userId, PageRequest.of(0, limit + 1))
+                : followRepository.findFollowingBefore(userId, before, PageRequest.of(0, limit + 1));
+        return page(edges, limit, Follow::getFolloweeId);
+    }
+
+    public CursorPage<UserDTO> getFollowers(String userId, String cursor, int size) {
+        return withUsers(getFollowerIds(userId, cursor, pageSize(size)));
+    }
+
+    public CursorPage<UserDTO> getFollowing(String userId, String cursor, int size) {
+        return withUsers(getFollowingIds(userId, cursor, pageSize(size)));
+    }
+
+    /**
+     * Every account the user follows, streamed off the follower_page_index.
+     */
+    public List<String> getAllFollowingIds(String userId) {
+        return allEdges(Criteria.where("followerId").is(userId), "followeeId", Follow::getFolloweeId);
+    }
+
+    /**
+     * Every follower of the user. Prefer getFollowerIds for large accounts.
+     */
+    public List<String> getAllFollowerIds(String userId) {
+        return allEdges(Criteria.where("followeeId").is(userId), "followerId", Follow::getFollowerId);
+    }
+
+    private List<String> allEdges(Criteria criteria, String field, Function<Follow, String> other) {
+        Query query = Query.query(criteria);
+        query.fields().include(field);
+        try (Stream<Follow> edges = mongoTemplate.stream(query, Follow.class)) {
+            return edges.map(other).collect(Collectors.toList());
+        }
+    }
+
+    private void adjustCounts(String followerId, String followeeId, int delta) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(followerId)),
+                new Update().inc("followingCount", delta), User.class);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(followeeId)),
+                new Update().inc("followersCount", delta), User.class);
+    }
+
+    private CursorPage<String> page(List<Follow> edges, int limit, Function<Follow, String> other) {
+        boolean hasNext = edges.size() > limit;
+        List<Follow> slice = hasNext ? edges.subList(0, limit) : edges;
+        String nextCursor = hasNext ? slice.get(slice.size() - 1).getId() : null;
+        return new CursorPage<>(slice.stream().map(other).collect(Collectors.toList()), nextCursor, hasNext);
+    }
+
+    // Profile summaries for one page, in the page's order
+    private CursorPage<UserDTO> withUsers(CursorPage<String> ids) {
+        Query query = Query.query(Criteria.where("_id").in(ids.getItems()));
+        query.fields().include("username", "fullName", "profilePicture");
+        Map<String, User> users = mongoTemplate.find(query, User.class).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<UserDTO> items = new ArrayList<>(ids.getItems().size());
+        for (String id : ids.getItems()) {
+            User user = users.get(id);
+            if (user != null) {
+                items.add(UserDTO.builder()
+                        .id(user.getId())
+                        .username(user.getUsername())
+                        .fullName(user.getFullName())
+                        .profilePicture(user.getProfilePicture())
+                        .build());
+            }
+        }
+        return new CursorPage<>(items, ids.getNextCursor(), ids.isHasNext());
+    }
+
+    private User findUser(String userId, String... fields) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include(fields);
+        return mongoTemplate.findOne(query, User.class);
+    }
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private static ObjectId parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        if (!ObjectId.isValid(cursor)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        return new ObjectId(cursor);
+    }
+}
@@ -0,0 +1,199 @@
+package com.user_service.user_service.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded 2-hop traversal for "people you may know": every account followed by someone the
+ * user follows is a candidate, scored by how many of those first-hop accounts lead to it.
+ * The first-hop set is split across a fork/join pool; each leaf counts into its own
+ * primitive table and the tables are merged on the way back up.
+ */
+@Component
+public class FriendsOfFriends {
+
+    private final ForkJoinPool pool;
+    private final int maxFirstHop;
+    private final int maxPerHop;
+    private final int leafSize;
+
+    public FriendsOfFriends(@Value("${pymk.parallelism:0}") int parallelism,
+                            @Value("${pymk.max-first-hop:500}") int maxFirstHop,
+                            @Value("${pymk.max-per-hop:1000}") int maxPerHop,
+                            @Value("${pymk.leaf-size:16}") int leafSize) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxFirstHop = maxFirstHop;
+        this.maxPerHop = maxPerHop;
+        this.leafSize = Math.max(1, leafSize);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Candidate {
+        private int user;
+        private int mutuals;
+    }
+
+    /**
+     * Top candidates for user, most mutual connections first. following maps a dense user
+     * id to the bitmap of ids it follows and must not change while this runs.
+     */
+    public List<Candidate> rank(IntFunction<RoaringBitmap> following, int user, int limit) {
+        RoaringBitmap firstHop = following.apply(user);
+        if (firstHop.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        RoaringBitmap exclude = firstHop.clone();
+        exclude.add(user);
+
+        int[] hop = firstHop.limit(maxFirstHop).toArray();
+        Counts counts = pool.invoke(new Traversal(following, exclude, hop, 0, hop.length));
+
+        // Min-heap of the best limit candidates; ties go to the lower id so results are stable
+        Comparator<Candidate> weakestFirst = Comparator.comparingInt(Candidate::getMutuals)
+                .thenComparing(Candidate::getUser, Comparator.reverseOrder());
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, weakestFirst);
+        counts.forEach((candidate, mutuals) -> {
+            top.offer(new Candidate(candidate, mutuals));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+
+        List<Candidate> ranked = new ArrayList<>(top);
+        ranked.sort(weakestFirst.reversed());
+        return ranked;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private final class Traversal extends RecursiveTask<Counts> {
+        private final IntFunction<RoaringBitmap> following;
+        private final RoaringBitmap exclude;
+        private final int[] hop;
+        private final int from;
+        private final int to;
+
+        Traversal(IntFunction<RoaringBitmap> following, RoaringBitmap exclude, int[] hop, int from, int to) {
+            this.following = following;
+            this.exclude = exclude;
+            this.hop = hop;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (to - from <= leafSize) {
+                Counts counts = new Counts(64);
+                for (int i = from; i < to; i++) {
+                    IntIterator next = following.apply(hop[i]).getIntIterator();
+                    for (int seen = 0; next.hasNext() && seen < maxPerHop; seen++) {
+                        int candidate = next.next();
+                        if (!exclude.contains(candidate)) {
+                            counts.add(candidate, 1);
+                        }
+                    }
+                }
+                return counts;
+            }
+
+            int mid = (from + to) >>> 1;
+            Traversal left = new Traversal(following, exclude, hop, from, mid);
+            left.fork();
+            Counts right = new Traversal(following, exclude, hop, mid, to).compute();
+            return Counts.merge(left.join(), right);
+        }
+    }
+
+    /**
+     * Open-addressing int -> int counter; avoids boxing a map entry per candidate.
+     */
+    static final class Counts {
+        private static final int EMPTY = -1;
+
+        private int[] keys;
+        private int[] values;
+        private int size;
+
+        Counts(int capacity) {
+            int slots = Integer.highestOneBit(Math.max(4, capacity) * 2 - 1);
+            keys = new int[slots];
+            values = new int[slots];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        void add(int key, int delta) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    values[slot] += delta;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = delta;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        void forEach(IntIntConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        static Counts merge(Counts a, Counts b) {
+            Counts into = a.size >= b.size ? a : b;
+            Counts from = into == a ? b : a;
+            from.forEach(into::add);
+            return into;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    add(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    @FunctionalInterface
+    interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+}
@@ -0,0 +1,152 @@
+package com.user_service.user_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.user_service.user_service.Model.User;
+import com.user_service.user_service.dto.SuggestionResponse;
+import com.user_service.user_service.event.UserEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "People you may know" from the in-memory follow graph. Suggestions are precomputed in
+ * batches for users who just logged in and cached with a TTL, so the endpoint normally
+ * answers from memory; a miss is computed on the spot.
+ */
+@Service
+@Slf4j
+public class PeopleYouMayKnowService {
+
+    private final SocialGraphIndex socialGraphIndex;
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, List<SuggestionResponse>> cache;
+    // Logged-in users waiting for precompute; a set so a login burst is computed once
+    private final Set<String> pending = new LinkedHashSet<>();
+
+    @Value("${pymk.size:50}")
+    private int size;
+
+    @Value("${pymk.batch-size:100}")
+    private int batchSize;
+
+    public PeopleYouMayKnowService(SocialGraphIndex socialGraphIndex,
+                                   MongoTemplate mongoTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${pymk.cache.max-size:100000}") long maxSize,
+                                   @Value("${pymk.cache.ttl-minutes:30}") long ttlMinutes) {
+        this.socialGraphIndex = socialGraphIndex;
+        this.mongoTemplate = mongoTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "suggestions");
+    }
+
+    public List<SuggestionResponse> getSuggestions(String userId, int limit) {
+        List<SuggestionResponse> suggestions = cache.getIfPresent(userId);
+        if (suggestions == null) {
+            suggestions = compute(List.of(userId)).getOrDefault(userId, List.of());
+            cache.put(userId, suggestions);
+        }
+
+        // Drop anyone followed since the list was cached
+        return suggestions.stream()
+                .filter(s -> !socialGraphIndex.follows(userId, s.getUserId()))
+                .limit(Math.max(0, limit))
+                .collect(Collectors.toList());
+    }
+
+    // Each replica precomputes into its own cache, so every replica sees every login
+    @KafkaListener(topics = "user-events",
+            groupId = "${pymk.group-id}",
+            properties = "auto.offset.reset=latest")
+    public void handleUserEvent(UserEvent event) {
+        if ("LOGIN".equals(event.getType()) && event.getUserId() != null) {
+            synchronized (pending) {
+                pending.add(event.getUserId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pymk.precompute-interval-ms:2000}")
+    public void precompute() {
+        if (!socialGraphIndex.isReady()) {
+            return;
+        }
+        List<String> batch;
+        while (!(batch = nextBatch()).isEmpty()) {
+            long started = System.currentTimeMillis();
+            cache.putAll(compute(batch));
+            log.debug("Precomputed suggestions for {} users in {} ms", batch.size(), System.currentTimeMillis() - started);
+        }
+    }
+
+    private List<String> nextBatch() {
+        List<String> batch = new ArrayList<>(batchSize);
+        synchronized (pending) {
+            Iterator<String> it = pending.iterator();
+            while (it.hasNext() && batch.size() < batchSize) {
+                batch.add(it.next());
+                it.remove();
+            }
+        }
+        return batch;
+    }
+
+    // Traverses the graph per user, then loads every suggested profile of the batch in one query
+    private Map<String, List<SuggestionResponse>> compute(List<String> userIds) {
+        Map<String, Map<String, Integer>> ranked = new HashMap<>();
+        Set<String> suggested = new HashSet<>();
+        for (String userId : userIds) {
+            Map<String, Integer> candidates = socialGraphIndex.friendsOfFriends(userId, size);
+            ranked.put(userId, candidates);
+            suggested.addAll(candidates.keySet());
+        }
+
+        Query query = Query.query(Criteria.where("_id").in(suggested));
+        query.fields().include("username", "fullName", "profilePicture");
+        Map<String, User> profiles = mongoTemplate.find(query, User.class).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Map<String, List<SuggestionResponse>> result = new HashMap<>();
+        ranked.forEach((userId, candidates) -> {
+            List<SuggestionResponse> suggestions = new ArrayList<>(candidates.size());
+            candidates.forEach((candidateId, mutuals) -> {
+                User user = profiles.get(candidateId);
+                if (user != null) {
+                    suggestions.add(SuggestionResponse.builder()
+                            .userId(user.getId())
+                            .username(user.getUsername())
+                            .fullName(user.getFullName())
+                            .profilePicture(user.getProfilePicture())
+                            .mutualCount(mutuals)
+                            .build());
+                }
+            });
+            result.put(userId, suggestions);
+        });
+        return result;
+    }
+}
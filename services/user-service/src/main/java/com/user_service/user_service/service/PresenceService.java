@@ -0,0 +1,261 @@
+package com.user_service.user_service.service;
+
+import com.user_service.user_service.Model.User;
+import com.user_service.user_service.dto.PresenceResponse;
+import com.user_service.user_service.event.PresenceEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who is online, kept in memory. Gateway requests and logins mark a user active, and
+ * message-service reports WebSocket connects and disconnects. A user is online while they
+ * hold a connection or were active within the online window.
+ * lastSeen reaches Mongo write-behind: changes made here are flushed periodically as batched
+ * $set-only updates. Replicas share changes over presence-events, which every replica consumes
+ * in its own group; only the replica that saw a change writes it.
+ */
+@Service
+@Slf4j
+public class PresenceService {
+
+    private static final String TOPIC = "presence-events";
+
+    private final MongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Counter flushed;
+    private final String origin = UUID.randomUUID().toString();
+
+    private final Map<String, Presence> users = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();  // lastSeen not yet in Mongo
+    private final Set<String> unsharedActivity = ConcurrentHashMap.newKeySet();
+
+    @Value("${presence.online-window-ms:120000}")
+    private long onlineWindowMs;
+
+    // A connection only counts while the user has been seen this recently, in case a disconnect was lost
+    @Value("${presence.connection-ttl-ms:1800000}")
+    private long connectionTtlMs;
+
+    @Value("${presence.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${presence.max-query-size:500}")
+    private int maxQuerySize;
+
+    public PresenceService(MongoTemplate mongoTemplate,
+                           KafkaTemplate<String, Object> kafkaTemplate,
+                           MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.flushed = Counter.builder("user.presence.flushed")
+                .description("lastSeen values written to Mongo")
+                .register(meterRegistry);
+        meterRegistry.gauge("user.presence.tracked", users, Map::size);
+        meterRegistry.gauge("user.presence.dirty", dirty, Set::size);
+    }
+
+    public void recordActivity(Collection<String> userIds) {
+        long now = System.currentTimeMillis();
+        for (String userId : userIds) {
+            update(userId, now, 0);
+            dirty.add(userId);
+            unsharedActivity.add(userId);
+        }
+    }
+
+    public void connected(String userId) {
+        long now = System.currentTimeMillis();
+        update(userId, now, 1);
+        dirty.add(userId);
+
+        PresenceEvent event = event(now);
+        event.getConnected().add(userId);
+        kafkaTemplate.send(TOPIC, userId, event);
+    }
+
+    public void disconnected(String userId) {
+        long now = System.currentTimeMillis();
+        update(userId, now, -1);
+        dirty.add(userId);
+
+        PresenceEvent event = event(now);
+        event.getDisconnected().add(userId);
+        kafkaTemplate.send(TOPIC, userId, event);
+    }
+
+    /**
+     * Presence for each requested user. Users not tracked here are offline and their lastSeen
+     * comes from Mongo in one query.
+     */
+    public Map<String, PresenceResponse> getPresence(List<String> userIds) {
+        if (userIds.size() > maxQuerySize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxQuerySize + " ids per request");
+        }
+        long now = System.currentTimeMillis();
+        Map<String, PresenceResponse> result = new LinkedHashMap<>();
+        List<String> untracked = new ArrayList<>();
+        for (String userId : userIds) {
+            Presence presence = users.get(userId);
+            if (presence != null) {
+                result.put(userId, new PresenceResponse(isOnline(presence, now), toLocal(presence.lastSeen)));
+            } else {
+                result.put(userId, new PresenceResponse(false, null));
+                untracked.add(userId);
+            }
+        }
+
+        if (!untracked.isEmpty()) {
+            Query query = Query.query(Criteria.where("_id").in(untracked));
+            query.fields().include("lastSeen");
+            for (User user : mongoTemplate.find(query, User.class)) {
+                result.put(user.getId(), new PresenceResponse(false, user.getLastSeen()));
+            }
+        }
+        return result;
+    }
+
+    // Each replica listens in its own consumer group so every one of them sees every change
+    @KafkaListener(topics = TOPIC,
+            groupId = "${presence.group-id}",
+            properties = {"auto.offset.reset=latest",
+                    "spring.json.value.default.type=com.user_service.user_service.event.PresenceEvent"})
+    public void handlePresenceEvent(PresenceEvent event) {
+        if (origin.equals(event.getOrigin())) {
+            return;
+        }
+        event.getActive().forEach(userId -> update(userId, event.getAt(), 0));
+        event.getConnected().forEach(userId -> update(userId, event.getAt(), 1));
+        event.getDisconnected().forEach(userId -> update(userId, event.getAt(), -1));
+    }
+
+    // Activity is frequent, so it is shared as one batch per interval rather than per request
+    @Scheduled(fixedDelayString = "${presence.share-interval-ms:1000}")
+    public void shareActivity() {
+        if (unsharedActivity.isEmpty()) {
+            return;
+        }
+        PresenceEvent event = event(System.currentTimeMillis());
+        drain(unsharedActivity, event.getActive(), Integer.MAX_VALUE);
+        kafkaTemplate.send(TOPIC, origin, event);
+    }
+
+    @Scheduled(fixedDelayString = "${presence.flush-interval-ms:10000}")
+    public void flush() {
+        long written = 0;
+        List<String> batch = new ArrayList<>(flushBatchSize);
+        while (drain(dirty, batch, flushBatchSize) > 0) {
+            written += write(batch);
+            batch.clear();
+        }
+        if (written > 0) {
+            flushed.increment(written);
+            log.debug("💾 Flushed lastSeen for {} users", written);
+        }
+        evictIdle();
+    }
+
+    private int write(List<String> userIds) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        int pending = 0;
+        for (String userId : userIds) {
+            Presence presence = users.get(userId);
+            if (presence == null) {
+                continue;
+            }
+            LocalDateTime lastSeen = toLocal(presence.lastSeen);
+            // Never move lastSeen backwards when another replica already wrote a later value
+            bulk.updateOne(Query.query(Criteria.where("_id").is(userId)
+                            .orOperator(Criteria.where("lastSeen").is(null), Criteria.where("lastSeen").lt(lastSeen))),
+                    new Update().set("lastSeen", lastSeen));
+            pending++;
+        }
+        if (pending == 0) {
+            return 0;
+        }
+        try {
+            bulk.execute();
+            return pending;
+        } catch (Exception e) {
+            log.error("❌ Failed to flush lastSeen for {} users: {}", pending, e.getMessage());
+            dirty.addAll(userIds);  // retried on the next flush
+            return 0;
+        }
+    }
+
+    // Offline users whose lastSeen is already in Mongo need no memory here
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (String userId : users.keySet()) {
+            users.computeIfPresent(userId, (id, presence) ->
+                    isOnline(presence, now) || dirty.contains(id) ? presence : null);
+        }
+    }
+
+    private void update(String userId, long at, int connectionDelta) {
+        users.compute(userId, (id, presence) -> {
+            Presence updated = presence != null ? presence : new Presence();
+            updated.lastSeen = Math.max(updated.lastSeen, at);
+            updated.connections = Math.max(0, updated.connections + connectionDelta);
+            return updated;
+        });
+    }
+
+    private boolean isOnline(Presence presence, long now) {
+        long idle = now - presence.lastSeen;
+        return idle < onlineWindowMs || (presence.connections > 0 && idle < connectionTtlMs);
+    }
+
+    private PresenceEvent event(long at) {
+        PresenceEvent event = new PresenceEvent();
+        event.setOrigin(origin);
+        event.setAt(at);
+        return event;
+    }
+
+    private static int drain(Set<String> from, List<String> into, int max) {
+        int drained = 0;
+        Iterator<String> it = from.iterator();
+        while (it.hasNext() && drained < max) {
+            into.add(it.next());
+            it.remove();
+            drained++;
+        }
+        return drained;
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    // Written only inside users.compute, read lock-free
+    private static final class Presence {
+        private volatile long lastSeen;
+        private volatile int connections;
+    }
+}
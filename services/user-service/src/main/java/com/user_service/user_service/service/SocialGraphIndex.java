@@ -0,0 +1,305 @@
+package com.user_service.user_service.service;
+
+import com.user_service.user_service.Model.Follow;
+import com.user_service.user_service.dto.GraphQueryResponse;
+import com.user_service.user_service.event.UserEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The whole follow graph held in memory for set queries. Every user id is interned to a dense
+ * int, and each user has a Roaring bitmap of the ints they follow and one of their followers,
+ * so intersections, counts and membership never touch Mongo.
+ * Built from the follows collection at startup and kept current from FOLLOW/UNFOLLOW on
+ * user-events, which every replica consumes in its own group.
+ */
+@Service
+@Slf4j
+public class SocialGraphIndex {
+
+    public static final String FOLLOW = "FOLLOW";
+    public static final String UNFOLLOW = "UNFOLLOW";
+
+    private final MongoTemplate mongoTemplate;
+    private final FriendsOfFriends friendsOfFriends;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Graph graph = new Graph();
+    private volatile boolean ready;
+    // Events that arrive while a build streams the collection, replayed onto the new graph
+    private List<UserEvent> pendingDuringBuild;
+
+    private volatile long sizeInBytes;
+
+    public SocialGraphIndex(MongoTemplate mongoTemplate, FriendsOfFriends friendsOfFriends, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.friendsOfFriends = friendsOfFriends;
+        meterRegistry.gauge("user.graph.index.users", this, index -> index.read(g -> (double) g.names.size()));
+        meterRegistry.gauge("user.graph.index.edges", this, index -> index.read(g -> (double) g.edges));
+        meterRegistry.gauge("user.graph.index.size.bytes", this, index -> index.sizeInBytes);
+        meterRegistry.gauge("user.graph.index.bytes.per.million.edges", this, SocialGraphIndex::bytesPerMillionEdges);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long started = System.currentTimeMillis();
+        Graph built = new Graph();
+        Query all = new Query();
+        all.fields().include("followerId", "followeeId");
+        try (Stream<Follow> edges = mongoTemplate.stream(all, Follow.class)) {
+            edges.forEach(edge -> built.add(edge.getFollowerId(), edge.getFolloweeId()));
+        }
+        built.optimize();
+
+        lock.writeLock().lock();
+        try {
+            for (UserEvent event : pendingDuringBuild) {
+                apply(built, event);
+            }
+            pendingDuringBuild = null;
+            graph = built;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        refreshSize();
+        log.info("Built social graph index: {} users, {} edges, {} bytes in {} ms",
+                built.names.size(), built.edges, sizeInBytes, System.currentTimeMillis() - started);
+    }
+
+    // Each replica listens in its own consumer group so every one of them sees every edge change
+    @KafkaListener(topics = "user-events",
+            groupId = "${graph.index.group-id}",
+            properties = "auto.offset.reset=latest")
+    public void handleUserEvent(UserEvent event) {
+        if (!FOLLOW.equals(event.getType()) && !UNFOLLOW.equals(event.getType())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(event);
+            }
+            apply(graph, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean follows(String followerId, String followeeId) {
+        return query(g -> {
+            int follower = g.lookup(followerId);
+            int followee = g.lookup(followeeId);
+            return follower >= 0 && followee >= 0 && g.following(follower).contains(followee);
+        });
+    }
+
+    /**
+     * Users who follow userId and whom userId follows back.
+     */
+    public GraphQueryResponse mutuals(String userId, int limit) {
+        return query(g -> {
+            int user = g.lookup(userId);
+            return user < 0 ? empty() : result(g, RoaringBitmap.and(g.following(user), g.followers(user)), limit);
+        });
+    }
+
+    /**
+     * Accounts userId follows that also follow targetId ("followed by people you follow").
+     */
+    public GraphQueryResponse followedByFollowing(String userId, String targetId, int limit) {
+        return query(g -> {
+            int user = g.lookup(userId);
+            int target = g.lookup(targetId);
+            return user < 0 || target < 0 ? empty() : result(g, RoaringBitmap.and(g.following(user), g.followers(target)), limit);
+        });
+    }
+
+    /**
+     * Users who follow both a and b.
+     */
+    public GraphQueryResponse commonFollowers(String a, String b, int limit) {
+        return query(g -> {
+            int first = g.lookup(a);
+            int second = g.lookup(b);
+            return first < 0 || second < 0 ? empty() : result(g, RoaringBitmap.and(g.followers(first), g.followers(second)), limit);
+        });
+    }
+
+    /**
+     * Accounts followed by both a and b.
+     */
+    public GraphQueryResponse commonFollowing(String a, String b, int limit) {
+        return query(g -> {
+            int first = g.lookup(a);
+            int second = g.lookup(b);
+            return first < 0 || second < 0 ? empty() : result(g, RoaringBitmap.and(g.following(first), g.following(second)), limit);
+        });
+    }
+
+    /**
+     * Friends-of-friends of userId that it does not follow yet, mapped to their mutual-connection
+     * count, best first. The read lock is held for the whole parallel traversal.
+     */
+    public Map<String, Integer> friendsOfFriends(String userId, int limit) {
+        return query(g -> {
+            int user = g.lookup(userId);
+            Map<String, Integer> ranked = new LinkedHashMap<>();
+            if (user >= 0) {
+                for (FriendsOfFriends.Candidate candidate : friendsOfFriends.rank(g::following, user, limit)) {
+                    ranked.put(g.names.get(candidate.getUser()), candidate.getMutuals());
+                }
+            }
+            return ranked;
+        });
+    }
+
+    // Adjacency bitmaps only; the id interning tables are not counted
+    @Scheduled(fixedDelayString = "${graph.index.stats-interval-ms:60000}")
+    public void refreshSize() {
+        sizeInBytes = read(g -> {
+            long bytes = 0;
+            for (int i = 0; i < g.names.size(); i++) {
+                bytes += g.out.get(i).getLongSizeInBytes() + g.in.get(i).getLongSizeInBytes();
+            }
+            return bytes;
+        });
+    }
+
+    private double bytesPerMillionEdges() {
+        long edges = read(g -> g.edges);
+        return edges == 0 ? 0 : sizeInBytes * 1_000_000.0 / edges;
+    }
+
+    private static void apply(Graph graph, UserEvent event) {
+        if (event.getUserId() == null || event.getTargetUserId() == null) {
+            return;
+        }
+        if (FOLLOW.equals(event.getType())) {
+            graph.add(event.getUserId(), event.getTargetUserId());
+        } else {
+            graph.remove(event.getUserId(), event.getTargetUserId());
+        }
+    }
+
+    // Until the first build finishes an empty answer would look like a real one
+    private <T> T query(Function<Graph, T> query) {
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Social graph index is still building");
+        }
+        return read(query);
+    }
+
+    private <T> T read(Function<Graph, T> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(graph);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A negative limit returns no ids, like 0; the count is exact either way
+    private static GraphQueryResponse result(Graph graph, RoaringBitmap users, int limit) {
+        int max = Math.max(0, limit);
+        List<String> ids = new ArrayList<>(Math.min(max, users.getCardinality()));
+        IntIterator it = users.getIntIterator();
+        while (it.hasNext() && ids.size() < max) {
+            ids.add(graph.names.get(it.next()));
+        }
+        return new GraphQueryResponse(users.getLongCardinality(), ids);
+    }
+
+    private static GraphQueryResponse empty() {
+        return new GraphQueryResponse(0, List.of());
+    }
+
+    private static final class Graph {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<RoaringBitmap> out = new ArrayList<>();  // whom each user follows
+        private final List<RoaringBitmap> in = new ArrayList<>();   // who follows each user
+        private long edges;
+
+        int lookup(String id) {
+            Integer index = ids.get(id);
+            return index != null ? index : -1;
+        }
+
+        RoaringBitmap following(int user) {
+            return out.get(user);
+        }
+
+        RoaringBitmap followers(int user) {
+            return in.get(user);
+        }
+
+        void add(String followerId, String followeeId) {
+            int follower = intern(followerId);
+            int followee = intern(followeeId);
+            if (out.get(follower).checkedAdd(followee)) {
+                in.get(followee).add(follower);
+                edges++;
+            }
+        }
+
+        void remove(String followerId, String followeeId) {
+            int follower = lookup(followerId);
+            int followee = lookup(followeeId);
+            if (follower >= 0 && followee >= 0 && out.get(follower).checkedRemove(followee)) {
+                in.get(followee).remove(follower);
+                edges--;
+            }
+        }
+
+        void optimize() {
+            out.forEach(RoaringBitmap::runOptimize);
+            in.forEach(RoaringBitmap::runOptimize);
+        }
+
+        private int intern(String id) {
+            Integer index = ids.get(id);
+            if (index != null) {
+                return index;
+            }
+            int assigned = names.size();
+            ids.put(id, assigned);
+            names.add(id);
+            out.add(new RoaringBitmap());
+            in.add(new RoaringBitmap());
+            return assigned;
+        }
+    }
+}
@@ -3,6 +3,11 @@ package com.user_service.user_service.service;
 import com.user_service.user_service.client.NotificationClient;
 import com.user_service.user_service.dto.*;
 import com.user_service.user_service.event.UserEvent;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import com.user_service.user_service.Model.User;
@@ -23,18 +28,27 @@ public class UserService {
     private final FileStorageService fileStorageService;
     private final NotificationClient notificationClient;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final PresenceService presenceService;
+    private final AvailabilityService availabilityService;
     private static final String EVENT_TOPIC = "user-events";
+    public static final String PROFILE_UPDATED = "PROFILE_UPDATED";
 
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        JwtService jwtService,
-                       FileStorageService fileStorageService, NotificationClient notificationClient, KafkaTemplate<String, Object> kafkaTemplate) {
+                       FileStorageService fileStorageService, NotificationClient notificationClient, KafkaTemplate<String, Object> kafkaTemplate,
+                       MongoTemplate mongoTemplate, PresenceService presenceService,
+                       AvailabilityService availabilityService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.fileStorageService = fileStorageService;
         this.notificationClient = notificationClient;
         this.kafkaTemplate = kafkaTemplate;
+        this.mongoTemplate = mongoTemplate;
+        this.presenceService = presenceService;
+        this.availabilityService = availabilityService;
     }
 
     // ✅ ADD THESE NEW METHODS FOR MESSAGE SERVICE
@@ -57,8 +71,8 @@ public class UserService {
                 .fullName(user.getFullName())
                 .profilePicture(user.getProfilePicture())
                 .bio(user.getBio())
-                .followersCount(user.getFollowers() != null ? user.getFollowers().size() : 0)
-                .followingCount(user.getFollowing() != null ? user.getFollowing().size() : 0)
+                .followersCount(user.getFollowersCount())
+                .followingCount(user.getFollowingCount())
                 .build();
     }
 
@@ -80,8 +94,8 @@ public class UserService {
                         .fullName(user.getFullName())
                         .profilePicture(user.getProfilePicture())
                         .bio(user.getBio())
-                        .followersCount(user.getFollowers() != null ? user.getFollowers().size() : 0)
-                        .followingCount(user.getFollowing() != null ? user.getFollowing().size() : 0)
+                        .followersCount(user.getFollowersCount())
+                        .followingCount(user.getFollowingCount())
                         .build())
                 .collect(Collectors.toList());
     }
@@ -106,6 +120,7 @@ public class UserService {
 
         try {
             System.out.println("→ Checking for existing username...");
+            // Always asked of Mongo: another replica's signup may not have reached the local filter yet
             Optional<User> existingUsername = userRepository.findByUsername(request.getUsername());
             if (existingUsername.isPresent()) {
                 System.out.println("❌ Username already exists!");
@@ -131,7 +146,15 @@ public class UserService {
             user.setUpdatedAt(LocalDateTime.now());
 
             System.out.println("→ Saving to MongoDB...");
-            User savedUser = userRepository.save(user);
+            User savedUser;
+            try {
+                savedUser = userRepository.save(user);
+            } catch (DuplicateKeyException e) {
+                // Lost a race with a concurrent signup; the unique indexes have the final say
+                throw new RuntimeException(e.getMessage() != null && e.getMessage().contains(AvailabilityService.EMAIL)
+                        ? "Email already exists" : "Username already exists");
+            }
+            availabilityService.registered(savedUser.getUsername(), savedUser.getEmail());
             System.out.println("✓ User saved with ID: " + savedUser.getId());
 
             System.out.println("→ Generating JWT token...");
@@ -148,6 +171,7 @@ public class UserService {
             user1.setType("REGISTRATION");
             user1.setUserId(user.getId());
             user1.setUsername(user.getUsername());
+            user1.setEmail(user.getEmail());
 
             kafkaTemplate.send(EVENT_TOPIC, user1);
 
@@ -179,8 +203,8 @@ public class UserService {
             throw new RuntimeException("Invalid password");
         }
 
-        user.setLastSeen(LocalDateTime.now());
-        userRepository.save(user);
+        // lastSeen reaches Mongo through the presence write-behind flush
+        presenceService.recordActivity(List.of(user.getId()));
 
         String token = jwtService.generateToken(user.getId(), user.getUsername());
 
@@ -216,65 +240,25 @@ public class UserService {
                 .bio(user.getBio())
                 .profilePicture(user.getProfilePicture())
                 .coverPicture(user.getCoverPicture())
-                .followersCount(user.getFollowers().size())
-                .followingCount(user.getFollowing().size())
+                .followersCount(user.getFollowersCount())
+                .followingCount(user.getFollowingCount())
                 .isVerified(user.isVerified())
                 .createdAt(user.getCreatedAt())
                 .build();
     }
 
-    public void followUser(String currentUserId, String targetUserId) {
-        if (currentUserId.equals(targetUserId)) {
-            throw new RuntimeException("Cannot follow yourself");
-        }
-
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        User targetUser = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new RuntimeException("Target user not found"));
-
-        currentUser.getFollowing().add(targetUserId);
-        targetUser.getFollowers().add(currentUserId);
-
-        userRepository.save(currentUser);
-        userRepository.save(targetUser);
-
-        UserEvent event = new UserEvent();
-        event.setType("FOLLOW");
-        event.setUserId(currentUserId);
-        event.setUsername(currentUser.getUsername());
-        event.setTargetUserId(targetUserId);
-
-        kafkaTemplate.send(EVENT_TOPIC, event);
-
-    }
-
-    public void unfollowUser(String currentUserId, String targetUserId) {
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        User targetUser = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new RuntimeException("Target user not found"));
-
-        currentUser.getFollowing().remove(targetUserId);
-        targetUser.getFollowers().remove(currentUserId);
-
-        userRepository.save(currentUser);
-        userRepository.save(targetUser);
-
-    }
-
     public UserProfileResponse updateProfile(String userId, UpdateProfileRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (request.getFullName() != null) user.setFullName(request.getFullName());
-        if (request.getBio() != null) user.setBio(request.getBio());
-        user.setUpdatedAt(LocalDateTime.now());
-
-        User savedUser = userRepository.save(user);
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        if (request.getFullName() != null) update.set("fullName", request.getFullName());
+        if (request.getBio() != null) update.set("bio", request.getBio());
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)), update, User.class);
 
-
-        return getUserProfile(savedUser.getUsername());
+        UserProfileResponse profile = getUserProfile(user.getUsername());
+        publishProfileUpdated(userId, profile.getUsername(), profile.getFullName(), profile.getProfilePicture());
+        return profile;
     }
 
     public String uploadProfilePicture(String userId, MultipartFile file) {
@@ -282,20 +266,26 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         String imageUrl = fileStorageService.uploadFile(file, "profile-pictures");
-        user.setProfilePicture(imageUrl);
-        user.setUpdatedAt(LocalDateTime.now());
+        String previousUrl = user.getProfilePicture();
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)),
+                new Update().set("profilePicture", imageUrl).set("updatedAt", LocalDateTime.now()), User.class);
 
-        userRepository.save(user);
+        // Re-uploading the same picture yields the same URL; only a replaced file loses its reference
+        if (previousUrl != null && !previousUrl.equals(imageUrl)) {
+            fileStorageService.deleteFile(previousUrl);
+        }
+        publishProfileUpdated(userId, user.getUsername(), user.getFullName(), imageUrl);
         return imageUrl;
     }
 
-    public List<String> getUserFollowing(String userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-
-        if (userOpt.isEmpty()) {
-            throw new RuntimeException("User not found with ID: " + userId);
-        }
-
-        return List.copyOf(userOpt.get().getFollowing());
+    // Other services cache and copy these fields; keyed by user so a user's updates stay in order
+    private void publishProfileUpdated(String userId, String username, String fullName, String profilePicture) {
+        UserEvent event = new UserEvent();
+        event.setType(PROFILE_UPDATED);
+        event.setUserId(userId);
+        event.setUsername(username);
+        event.setFullName(fullName);
+        event.setProfilePicture(profilePicture);
+        kafkaTemplate.send(EVENT_TOPIC, userId, event);
     }
-}
\ No newline at end of file
+}
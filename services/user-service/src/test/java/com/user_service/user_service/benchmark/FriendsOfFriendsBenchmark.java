@@ -0,0 +1,84 @@
+package com.user_service.user_service.benchmark;
+
+import com.user_service.user_service.service.FriendsOfFriends;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * People-you-may-know 2-hop ranking on a synthetic 200k-user graph whose follow targets are
+ * skewed towards popular accounts, for a user following 300 accounts.
+ * Run main() after mvn test-compile, or org.openjdk.jmh.Main FriendsOfFriendsBenchmark on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FriendsOfFriendsBenchmark {
+
+    private static final int USERS = 200_000;
+    private static final int AVERAGE_FOLLOWING = 100;
+    private static final int VIEWER_FOLLOWING = 300;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private FriendsOfFriends traversal;
+    private RoaringBitmap[] following;
+    private int viewer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        traversal = new FriendsOfFriends(parallelism, 500, 1000, 16);
+        following = new RoaringBitmap[USERS];
+        Random random = new Random(42);
+        for (int u = 0; u < USERS; u++) {
+            following[u] = new RoaringBitmap();
+            int count = u == 0 ? VIEWER_FOLLOWING : 1 + random.nextInt(AVERAGE_FOLLOWING * 2);
+            while (following[u].getCardinality() < count) {
+                // Squaring a uniform draw crowds follows onto low ids, the "popular" accounts
+                double skew = random.nextDouble();
+                int target = (int) (skew * skew * USERS);
+                if (target != u) {
+                    following[u].add(target);
+                }
+            }
+            following[u].runOptimize();
+        }
+        viewer = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        traversal.shutdown();
+    }
+
+    @Benchmark
+    public List<FriendsOfFriends.Candidate> rankTop50() {
+        return traversal.rank(user -> following[user], viewer, 50);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FriendsOfFriendsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,176 @@
+package com.user_snapshot_cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces user lookups into batch calls, normally POST /api/users/internal/batch. Lookups
+ * arriving within one window (or until the batch is full) share a single request, and each
+ * caller gets its own future. With dedup on, a lookup for a user already in flight joins that
+ * request instead of queueing another. Each service declares its own bean, since only it knows
+ * its UserDTO type and client; shutdown() is picked up as the bean's destroy method.
+ */
+@Slf4j
+public class UserBatchLoader<T> {
+
+    private final Function<List<String>, List<T>> fetcher;
+    private final Function<T, String> idOf;
+    private final ScheduledExecutorService executor;
+    private final long windowMicros;
+    private final int maxBatchSize;
+    private final boolean dedupInFlight;
+
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<T>> queued = new LinkedHashMap<>();
+    private final Map<String, CompletableFuture<T>> inFlight = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final DistributionSummary fillRatio;
+    private final Counter dedupHits;
+    private final Timer batchLatency;
+
+    public UserBatchLoader(Function<List<String>, List<T>> fetcher,
+                           Function<T, String> idOf,
+                           UserBatchLoaderProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.fetcher = fetcher;
+        this.idOf = idOf;
+        this.executor = Executors.newScheduledThreadPool(properties.getThreads());
+        this.windowMicros = Math.round(properties.getWindowMs() * 1000);
+        this.maxBatchSize = properties.getMaxSize();
+        this.dedupInFlight = properties.isDedupInFlight();
+
+        this.fillRatio = DistributionSummary.builder("user.batch.fill.ratio")
+                .description("Users per batch request as a fraction of the maximum batch size")
+                .register(meterRegistry);
+        this.dedupHits = Counter.builder("user.batch.dedup.hits")
+                .description("Lookups answered by a request already queued or in flight")
+                .register(meterRegistry);
+        this.batchLatency = Timer.builder("user.batch.latency")
+                .description("Time for one batch request to user-service")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<T> load(String userId) {
+        synchronized (lock) {
+            CompletableFuture<T> pending = queued.get(userId);
+            if (pending == null && dedupInFlight) {
+                pending = inFlight.get(userId);
+            }
+            if (pending != null) {
+                dedupHits.increment();
+                return pending;
+            }
+
+            CompletableFuture<T> future = new CompletableFuture<>();
+            queued.put(userId, future);
+            if (queued.size() >= maxBatchSize) {
+                dispatchLocked();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = executor.schedule(this::flush, windowMicros, TimeUnit.MICROSECONDS);
+            }
+            return future;
+        }
+    }
+
+    /**
+     * Looks up several users in as few requests as possible; users that do not exist are absent.
+     */
+    public Map<String, T> loadAll(Collection<String> userIds) {
+        Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        userIds.forEach(id -> futures.computeIfAbsent(id, this::load));
+
+        Map<String, T> users = new LinkedHashMap<>();
+        futures.forEach((id, future) -> {
+            T user = join(future);
+            if (user != null) {
+                users.put(id, user);
+            }
+        });
+        return users;
+    }
+
+    /**
+     * Blocking lookup, a drop-in for UserServiceClient.getUserById.
+     */
+    public T get(String userId) {
+        T user = join(load(userId));
+        if (user == null) {
+            throw new RuntimeException("User not found: " + userId);
+        }
+        return user;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void flush() {
+        synchronized (lock) {
+            scheduledFlush = null;
+            if (!queued.isEmpty()) {
+                dispatchLocked();
+            }
+        }
+    }
+
+    private void dispatchLocked() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        Map<String, CompletableFuture<T>> batch = queued;
+        queued = new LinkedHashMap<>();
+        if (dedupInFlight) {
+            inFlight.putAll(batch);
+        }
+        executor.execute(() -> fetch(batch));
+    }
+
+    private void fetch(Map<String, CompletableFuture<T>> batch) {
+        fillRatio.record((double) batch.size() / maxBatchSize);
+        long started = System.nanoTime();
+        try {
+            Map<String, T> found = new HashMap<>();
+            for (T user : fetcher.apply(new ArrayList<>(batch.keySet()))) {
+                found.put(idOf.apply(user), user);
+            }
+            batch.forEach((id, future) -> future.complete(found.get(id)));
+        } catch (Exception e) {
+            log.error("Batch lookup of {} users failed: {}", batch.size(), e.getMessage());
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            batchLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (dedupInFlight) {
+                synchronized (lock) {
+                    batch.forEach(inFlight::remove);
+                }
+            }
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.user_snapshot_cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "user.batch")
+public class UserBatchLoaderProperties {
+
+    // How long the first lookup of a batch waits for others to join it
+    private double windowMs = 2;
+
+    private int maxSize = 100;
+
+    // A lookup for a user already being fetched joins that request
+    private boolean dedupInFlight = true;
+
+    private int threads = 4;
+}
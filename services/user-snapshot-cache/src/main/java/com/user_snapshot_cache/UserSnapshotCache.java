@@ -0,0 +1,144 @@
+package com.user_snapshot_cache;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded near-cache of user snapshots, keyed by user id. Misses go to the service's own
+ * loader (normally its batched user-service client); entries past refreshAfter are reloaded
+ * in the background while the old snapshot keeps being served, and ids the loader did not
+ * return are cached as unknown for the shorter negativeTtl. A failed load caches nothing.
+ * Entries are dropped early when user-service publishes PROFILE_UPDATED for the user.
+ */
+public class UserSnapshotCache<T> {
+
+    public static final String PROFILE_UPDATED = "PROFILE_UPDATED";
+
+    private final String name;
+    private final LoadingCache<String, Optional<T>> cache;
+    private final Counter unknownHits;
+
+    public UserSnapshotCache(String name,
+                             Function<Collection<String>, Map<String, T>> loader,
+                             UserSnapshotCacheProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new SnapshotExpiry<T>(properties.getTtl().toNanos(), properties.getNegativeTtl().toNanos()))
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .recordStats()
+                .build(new SnapshotLoader<>(loader));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("user.snapshot.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Fraction of user lookups answered from the near-cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.unknownHits = Counter.builder("user.snapshot.cache.unknown")
+                .description("Lookups answered as unknown user")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<T> find(String userId) {
+        Optional<T> snapshot = cache.get(userId);
+        if (snapshot.isEmpty()) {
+            unknownHits.increment();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Blocking lookup, a drop-in for UserServiceClient.getUserById.
+     */
+    public T get(String userId) {
+        return find(userId).orElseThrow(() -> new RuntimeException("User not found: " + userId));
+    }
+
+    /**
+     * Snapshots for several users, loading all misses in one call; unknown users are absent.
+     */
+    public Map<String, T> getAll(Collection<String> userIds) {
+        Map<String, T> users = new LinkedHashMap<>();
+        cache.getAll(userIds).forEach((id, snapshot) -> {
+            if (snapshot.isPresent()) {
+                users.put(id, snapshot.get());
+            } else {
+                unknownHits.increment();
+            }
+        });
+        return users;
+    }
+
+    public void invalidate(String userId) {
+        cache.invalidate(userId);
+    }
+
+    private static final class SnapshotLoader<T> implements CacheLoader<String, Optional<T>> {
+        private final Function<Collection<String>, Map<String, T>> loader;
+
+        SnapshotLoader(Function<Collection<String>, Map<String, T>> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public Optional<T> load(String userId) {
+            return Optional.ofNullable(loader.apply(Set.of(userId)).get(userId));
+        }
+
+        @Override
+        public Map<String, Optional<T>> loadAll(Set<? extends String> userIds) {
+            Map<String, T> found = loader.apply(Set.copyOf(userIds));
+            Map<String, Optional<T>> snapshots = new HashMap<>();
+            for (String id : userIds) {
+                snapshots.put(id, Optional.ofNullable(found.get(id)));
+            }
+            return snapshots;
+        }
+    }
+
+    // Known users live for ttl, unknown ones for negativeTtl; reads never extend either
+    private static final class SnapshotExpiry<T> implements Expiry<String, Optional<T>> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        SnapshotExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String userId, Optional<T> snapshot, long currentTime) {
+            return snapshot.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String userId, Optional<T> snapshot, long currentTime, long currentDuration) {
+            return expireAfterCreate(userId, snapshot, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String userId, Optional<T> snapshot, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
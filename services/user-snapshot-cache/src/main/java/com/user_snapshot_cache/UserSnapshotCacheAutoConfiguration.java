@@ -0,0 +1,58 @@
+package com.user_snapshot_cache;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binds user.snapshot-cache.* and user.batch.* and, when spring-kafka is present, registers
+ * the PROFILE_UPDATED listener. Each service declares its own UserBatchLoader and
+ * UserSnapshotCache beans, since only it knows its UserDTO type and how to load it.
+ */
+@AutoConfiguration
+@EnableConfigurationProperties({UserSnapshotCacheProperties.class, UserBatchLoaderProperties.class})
+public class UserSnapshotCacheAutoConfiguration {
+
+    public static final String LISTENER_CONTAINER_FACTORY = "userSnapshotCacheListenerContainerFactory";
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(EnableKafka.class)
+    @ConditionalOnProperty(prefix = "user.snapshot-cache.invalidation", name = "enabled", matchIfMissing = true)
+    @EnableKafka
+    static class InvalidationConfiguration {
+
+        // Own String consumer: the service's configured JSON deserializer targets its own event types
+        @Bean(LISTENER_CONTAINER_FACTORY)
+        ConcurrentKafkaListenerContainerFactory<String, String> userSnapshotCacheListenerContainerFactory(
+                @Value("${spring.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers) {
+            Map<String, Object> props = new HashMap<>();
+            props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+            props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+            props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+            // A new replica starts with an empty cache, so older invalidations are irrelevant
+            props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+            ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+            factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+            return factory;
+        }
+
+        @Bean
+        UserSnapshotInvalidationListener userSnapshotInvalidationListener(ObjectProvider<UserSnapshotCache<?>> caches) {
+            return new UserSnapshotInvalidationListener(caches);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.user_snapshot_cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "user.snapshot-cache")
+public class UserSnapshotCacheProperties {
+
+    private long maxSize = 100_000;
+
+    // Hard bound on staleness if no PROFILE_UPDATED ever arrives for an entry
+    private Duration ttl = Duration.ofMinutes(10);
+
+    // A read after this age reloads the entry in the background and still returns the old snapshot
+    private Duration refreshAfter = Duration.ofMinutes(2);
+
+    // How long an id user-service did not know is answered as unknown without asking again
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    private Invalidation invalidation = new Invalidation();
+
+    @Data
+    public static class Invalidation {
+        private boolean enabled = true;
+        private String topic = "user-events";
+    }
+}
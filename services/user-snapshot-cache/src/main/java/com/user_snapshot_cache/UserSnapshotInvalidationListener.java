@@ -0,0 +1,44 @@
+package com.user_snapshot_cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.annotation.KafkaListener;
+
+/**
+ * Drops a user's snapshot from every near-cache in this service when user-service publishes
+ * PROFILE_UPDATED. The payload is read as plain JSON so it does not depend on the consuming
+ * service's default event type for user-events.
+ */
+@Slf4j
+public class UserSnapshotInvalidationListener {
+
+    private final ObjectProvider<UserSnapshotCache<?>> caches;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public UserSnapshotInvalidationListener(ObjectProvider<UserSnapshotCache<?>> caches) {
+        this.caches = caches;
+    }
+
+    // Each replica listens in its own consumer group so every local cache gets every invalidation
+    @KafkaListener(topics = "${user.snapshot-cache.invalidation.topic:user-events}",
+            groupId = "user-snapshot-cache-${spring.application.name:app}-${random.uuid}",
+            containerFactory = UserSnapshotCacheAutoConfiguration.LISTENER_CONTAINER_FACTORY)
+    public void handleUserEvent(String payload) {
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(payload);
+        } catch (Exception e) {
+            log.warn("Skipping unreadable user event: {}", e.getMessage());
+            return;
+        }
+        if (!UserSnapshotCache.PROFILE_UPDATED.equals(event.path("type").asText())) {
+            return;
+        }
+        String userId = event.path("userId").asText(null);
+        if (userId != null) {
+            caches.forEach(cache -> cache.invalidate(userId));
+        }
+    }
+}